@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.VarPlayer;
+import net.runelite.api.Varbits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generated gear switches replayed through {@link TickReplaySimulator}, each the three attack style var changes and the
+ * client tick with its frame, so an operation is four events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GearSwitchReplayBenchmark
+{
+	// Weapon types with synthetic style enums, plus the Blue moon spear and Partisan fallbacks
+	private static final int[] WEAPON_TYPES = {0, 1, 3, 9, 18, 20, 22, 30};
+	private static final int SWITCHES = 1024;
+
+	private final int[] weaponTypes = new int[SWITCHES];
+	private final int[] attackStyleIndexes = new int[SWITCHES];
+	private TickReplaySimulator simulator;
+	private int next;
+
+	@Setup
+	public void setUp() throws Exception
+	{
+		Random random = new Random(43);
+		for (int i = 0; i < SWITCHES; i++)
+		{
+			weaponTypes[i] = WEAPON_TYPES[random.nextInt(WEAPON_TYPES.length)];
+			attackStyleIndexes[i] = random.nextInt(4);
+		}
+
+		simulator = new TickReplaySimulator(new PluginFixture(true));
+		simulator.start();
+		simulator.config("warnForDefensive", true);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		simulator.stop();
+	}
+
+	@Benchmark
+	public boolean gearSwitch()
+	{
+		int i = next++ & (SWITCHES - 1);
+		simulator.varbit(Varbits.EQUIPPED_WEAPON_TYPE, weaponTypes[i]);
+		simulator.varp(VarPlayer.ATTACK_STYLE, attackStyleIndexes[i]);
+		simulator.varbit(Varbits.DEFENSIVE_CASTING_MODE, 0);
+		return simulator.tick();
+	}
+}
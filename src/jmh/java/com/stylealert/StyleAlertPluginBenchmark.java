@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Attack style resolution and warning evaluation against the {@link FakeClient}'s synthetic weapon style enums,
+ * cycling through weapon types the way a gear switch does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StyleAlertPluginBenchmark
+{
+	// Weapon types with synthetic style enums, plus the Blue moon spear and Partisan fallbacks
+	private static final int[] WEAPON_TYPES = {0, 1, 3, 9, 18, 20, 22, 30};
+
+	private PluginFixture fixture;
+	private int next;
+
+	@Setup
+	public void setUp() throws Exception
+	{
+		fixture = new PluginFixture(true);
+		fixture.config.set("warnForDefensive", true);
+		fixture.plugin.startUp();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		fixture.plugin.shutDown();
+	}
+
+	@Benchmark
+	public AttackStyle[] getWeaponTypeStyles()
+	{
+		return fixture.plugin.getWeaponTypeStyles(WEAPON_TYPES[next++ & 7]);
+	}
+
+	@Benchmark
+	public AttackStyle updateAttackStyle()
+	{
+		int i = next++;
+		fixture.plugin.updateAttackStyle(WEAPON_TYPES[i & 7], (i >> 3) & 3, 0);
+		return fixture.plugin.getAttackStyle();
+	}
+
+	@Benchmark
+	public boolean updateWarning()
+	{
+		int i = next++;
+		fixture.plugin.updateAttackStyle(WEAPON_TYPES[i & 7], (i >> 3) & 3, 0);
+		fixture.plugin.updateWarning();
+		return fixture.plugin.isWarnedSkillSelected();
+	}
+}
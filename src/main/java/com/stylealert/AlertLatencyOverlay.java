@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+// Debug overlay with the varbit to flash latency percentiles, only added when enabled in the config
+class AlertLatencyOverlay extends OverlayPanel
+{
+	private final AlertLatencyTracker latencyTracker;
+
+	@Inject
+	private AlertLatencyOverlay(AlertLatencyTracker latencyTracker)
+	{
+		this.latencyTracker = latencyTracker;
+		setPosition(OverlayPosition.TOP_LEFT);
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		panelComponent.getChildren().add(TitleComponent.builder()
+			.text("Style alert latency")
+			.build());
+		addHistogram("Dispatch", latencyTracker.getDispatch());
+		addHistogram("Frame", latencyTracker.getFrame());
+		addHistogram("Total", latencyTracker.getTotal());
+		return super.render(graphics);
+	}
+
+	private void addHistogram(String name, LatencyHistogram histogram)
+	{
+		panelComponent.getChildren().add(LineComponent.builder()
+			.left(name + " p50/p99")
+			.right(AlertLatencyTracker.millis(histogram.percentile(0.5)) + " / " + AlertLatencyTracker.millis(histogram.percentile(0.99)))
+			.build());
+		panelComponent.getChildren().add(LineComponent.builder()
+			.left(name + " max")
+			.right(AlertLatencyTracker.millis(histogram.getMax()))
+			.build());
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import javax.inject.Singleton;
+import lombok.Getter;
+
+/**
+ * Timestamps the path from a watched varbit changing to the first frame that shows the flash.
+ * <ul>
+ * <li>dispatch: varbit changed to the flash being started by the style re-evaluation</li>
+ * <li>frame: flash started to the first frame filled by the overlay</li>
+ * <li>total: varbit changed to the first filled frame</li>
+ * </ul>
+ * Must only be used from the client thread.
+ */
+@Singleton
+class AlertLatencyTracker
+{
+	@Getter
+	private final LatencyHistogram dispatch = new LatencyHistogram();
+	@Getter
+	private final LatencyHistogram frame = new LatencyHistogram();
+	@Getter
+	private final LatencyHistogram total = new LatencyHistogram();
+
+	// First varbit change since the style was last evaluated, 0 if none
+	private long varbitNanos;
+	// Flash waiting for its first frame, 0 if none
+	private long pendingVarbitNanos;
+	private long pendingFlashNanos;
+
+	void varbitChanged()
+	{
+		if (varbitNanos == 0)
+		{
+			varbitNanos = System.nanoTime();
+		}
+	}
+
+	void styleEvaluated()
+	{
+		varbitNanos = 0;
+	}
+
+	void flashStarted(long flashNanos)
+	{
+		if (varbitNanos != 0)
+		{
+			dispatch.record(flashNanos - varbitNanos);
+		}
+		pendingVarbitNanos = varbitNanos;
+		pendingFlashNanos = flashNanos;
+	}
+
+	void flashRendered()
+	{
+		if (pendingFlashNanos == 0)
+		{
+			return;
+		}
+
+		long now = System.nanoTime();
+		frame.record(now - pendingFlashNanos);
+		if (pendingVarbitNanos != 0)
+		{
+			total.record(now - pendingVarbitNanos);
+		}
+		pendingFlashNanos = 0;
+		pendingVarbitNanos = 0;
+	}
+
+	void reset()
+	{
+		varbitNanos = 0;
+		pendingVarbitNanos = 0;
+		pendingFlashNanos = 0;
+		dispatch.reset();
+		frame.reset();
+		total.reset();
+	}
+
+	String summary()
+	{
+		return "dispatch " + summary(dispatch) + ", frame " + summary(frame) + ", total " + summary(total);
+	}
+
+	static String summary(LatencyHistogram histogram)
+	{
+		return String.format("p50 %s p99 %s max %s (n=%d)",
+			millis(histogram.percentile(0.5)), millis(histogram.percentile(0.99)), millis(histogram.getMax()), histogram.getCount());
+	}
+
+	static String millis(long nanos)
+	{
+		return String.format("%.2fms", nanos / 1_000_000.0);
+	}
+}
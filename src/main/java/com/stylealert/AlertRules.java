@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Skill;
+
+/**
+ * Rules refining the per-skill warnings, parsed from the alert rules config.
+ * <p>
+ * One rule per line, later rules overriding earlier ones:
+ * <pre>
+ * warn Defence on 18          # warn for Defence only with weapon type 18
+ * allow Controlled on 20      # allow Controlled on whips
+ * warn Longrange
+ * </pre>
+ * A rule names an attack style or the skill its styles train, and applies to every weapon type unless it lists the
+ * weapon type varbit values it is limited to. The rules are applied once when {@link WarnedStyleLookup} is built.
+ */
+@Slf4j
+final class AlertRules
+{
+	static final AlertRules NONE = new AlertRules(new Rule[0]);
+
+	private final Rule[] rules;
+
+	private AlertRules(Rule[] rules)
+	{
+		this.rules = rules;
+	}
+
+	static AlertRules parse(String text)
+	{
+		List<Rule> rules = new ArrayList<>();
+		for (String line : text.split("\\R"))
+		{
+			int comment = line.indexOf('#');
+			if (comment != -1)
+			{
+				line = line.substring(0, comment);
+			}
+
+			line = line.trim();
+			if (line.isEmpty())
+			{
+				continue;
+			}
+
+			try
+			{
+				rules.add(parseRule(line));
+			}
+			catch (IllegalArgumentException e)
+			{
+				log.warn("Ignoring alert rule \"{}\": {}", line, e.getMessage());
+			}
+		}
+		return rules.isEmpty() ? NONE : new AlertRules(rules.toArray(new Rule[0]));
+	}
+
+	// Whether the style is warned for the weapon type, given whether the skill warnings warn for it
+	boolean isWarned(boolean warned, int weaponType, AttackStyle attackStyle)
+	{
+		for (Rule rule : rules)
+		{
+			if ((rule.attackStyleMask & (1 << attackStyle.ordinal())) != 0
+				&& (rule.weaponTypes == null || rule.weaponTypes.get(weaponType)))
+			{
+				warned = rule.warn;
+			}
+		}
+		return warned;
+	}
+
+	private static Rule parseRule(String line)
+	{
+		String lower = line.toLowerCase(Locale.ROOT);
+		int on = lower.indexOf(" on ");
+		String target = on == -1 ? line : line.substring(0, on);
+		String weaponTypes = on == -1 ? null : line.substring(on + 4);
+
+		int space = target.indexOf(' ');
+		if (space == -1)
+		{
+			throw new IllegalArgumentException("expected warn or allow followed by a style or skill");
+		}
+
+		String action = target.substring(0, space).toLowerCase(Locale.ROOT);
+		boolean warn;
+		switch (action)
+		{
+			case "warn":
+				warn = true;
+				break;
+			case "allow":
+				warn = false;
+				break;
+			default:
+				throw new IllegalArgumentException("unknown action " + action);
+		}
+
+		return new Rule(warn, parseAttackStyleMask(target.substring(space + 1).trim()),
+			weaponTypes == null ? null : parseWeaponTypes(weaponTypes));
+	}
+
+	// Bit per AttackStyle ordinal of the styles matching the name of a style or skill
+	private static int parseAttackStyleMask(String name)
+	{
+		for (AttackStyle attackStyle : AttackStyle.values())
+		{
+			if (attackStyle.getName().equalsIgnoreCase(name) || attackStyle.name().equalsIgnoreCase(name))
+			{
+				return 1 << attackStyle.ordinal();
+			}
+		}
+
+		for (Skill skill : Skill.values())
+		{
+			if (skill.getName().equalsIgnoreCase(name))
+			{
+				int skillMask = AttackStyle.skillMask(skill);
+				int attackStyleMask = 0;
+				for (AttackStyle attackStyle : AttackStyle.values())
+				{
+					if ((attackStyle.getSkillMask() & skillMask) != 0)
+					{
+						attackStyleMask |= 1 << attackStyle.ordinal();
+					}
+				}
+				return attackStyleMask;
+			}
+		}
+
+		throw new IllegalArgumentException("unknown style or skill " + name);
+	}
+
+	private static BitSet parseWeaponTypes(String text)
+	{
+		BitSet weaponTypes = new BitSet();
+		for (String weaponType : text.split(","))
+		{
+			try
+			{
+				int value = Integer.parseInt(weaponType.trim());
+				if (value < 0)
+				{
+					throw new IllegalArgumentException("negative weapon type " + value);
+				}
+				weaponTypes.set(value);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException("weapon type is not a number: " + weaponType.trim());
+			}
+		}
+		return weaponTypes;
+	}
+
+	private static final class Rule
+	{
+		private final boolean warn;
+		private final int attackStyleMask;
+		// Null to match every weapon type
+		private final BitSet weaponTypes;
+
+		private Rule(boolean warn, int attackStyleMask, BitSet weaponTypes)
+		{
+			this.warn = warn;
+			this.attackStyleMask = attackStyleMask;
+			this.weaponTypes = weaponTypes;
+		}
+	}
+}
@@ -0,0 +1,592 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.stylealert.StyleAlertConfig.SoundOption;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.inject.Singleton;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Plays the alert sounds from a small pool of pre-opened lines per {@link SoundOption}.
+ * <p>
+ * Decoding, line acquisition and playback all run on a single daemon audio thread with a bounded queue, so callers never
+ * wait on audio. A request for a sound that is still queued is merged into it, and when the queue is full the oldest
+ * request is dropped. The sounds are decoded once in {@link #startUp()} and every line is released in {@link #shutDown()}.
+ * A restart only decodes the sounds once the audio thread of the previous start has released its lines.
+ * <p>
+ * The custom sound is read from {@link StyleAlertPlugin#STYLE_ALERT_DIR} into a direct buffer, so the file is never left open or mapped,
+ * and converted to PCM once. It is only decoded again when the file or its modification time changes, and only the lines
+ * of the selected file are kept.
+ */
+@Slf4j
+@Singleton
+class AlertSoundPlayer
+{
+	// Lines kept open per sound, enough to overlap the sound on the fastest flash interval
+	private static final int CLIPS_PER_SOUND = 3;
+	// Most sounds playing at once across all pools, further requests are dropped
+	private static final int MAX_PLAYING_CLIPS = 4;
+	private static final int QUEUE_CAPACITY = 4;
+
+	// Larger files and samples are rejected instead of being decoded into memory, each line of a pool holds a copy
+	private static final int MAX_SOUND_BYTES = 4 * 1024 * 1024;
+
+	// Audio thread only
+	private final Map<SoundOption, SoundPool> pools = new EnumMap<>(SoundOption.class);
+	// Pre-bound per sound, so requesting a sound does not allocate
+	private final Map<SoundOption, PlayTask> playTasks = new EnumMap<>(SoundOption.class);
+
+	// Audio thread only, the file and modification time the custom pool was last loaded for
+	private Path loadedCustomSoundPath;
+	private long loadedCustomSoundModified;
+	// Audio thread only, the last file name that is not a valid path, so it is only reported once
+	private String invalidCustomSoundFile;
+
+	private volatile String customSoundFile = "";
+
+	private volatile ThreadPoolExecutor executor;
+	// Shut down but maybe still closing its lines, until the next start waits for it
+	private ThreadPoolExecutor stoppingExecutor;
+	private volatile float volume;
+
+	AlertSoundPlayer()
+	{
+		for (SoundOption sound : SoundOption.values())
+		{
+			playTasks.put(sound, new PlayTask(sound));
+		}
+	}
+
+	synchronized void startUp()
+	{
+		ThreadPoolExecutor previous = stoppingExecutor;
+		stoppingExecutor = null;
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+			new ThreadFactoryBuilder().setNameFormat("style-alert-audio").setDaemon(true).build(),
+			AlertSoundPlayer::dropOldest);
+		executor.execute(() ->
+		{
+			if (awaitTermination(previous))
+			{
+				loadSounds();
+			}
+		});
+		this.executor = executor;
+	}
+
+	synchronized void shutDown()
+	{
+		ThreadPoolExecutor executor = this.executor;
+		if (executor == null)
+		{
+			return;
+		}
+
+		this.executor = null;
+		executor.getQueue().clear();
+		for (PlayTask task : playTasks.values())
+		{
+			task.pending.set(false);
+		}
+		executor.execute(this::closeSounds);
+		executor.shutdown();
+		stoppingExecutor = executor;
+	}
+
+	// Waits for the audio thread of the previous start, so only one thread ever touches the pools
+	private static boolean awaitTermination(ThreadPoolExecutor previous)
+	{
+		if (previous == null)
+		{
+			return true;
+		}
+
+		try
+		{
+			return previous.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	// Load the custom sound ahead of the first alert, does nothing if the file did not change
+	void setCustomSoundFile(String fileName)
+	{
+		customSoundFile = fileName;
+
+		ThreadPoolExecutor executor = this.executor;
+		if (executor != null)
+		{
+			executor.execute(this::loadCustomSound);
+		}
+	}
+
+	void play(SoundOption sound, float volume)
+	{
+		ThreadPoolExecutor executor = this.executor;
+		PlayTask task = playTasks.get(sound);
+		if (executor == null || sound == SoundOption.OFF)
+		{
+			return;
+		}
+
+		this.volume = volume;
+		// Merge into the request already waiting for this sound
+		if (task.pending.compareAndSet(false, true))
+		{
+			executor.execute(task);
+		}
+	}
+
+	private static void dropOldest(Runnable request, ThreadPoolExecutor executor)
+	{
+		if (executor.isShutdown())
+		{
+			return;
+		}
+
+		Runnable dropped = executor.getQueue().poll();
+		if (dropped instanceof PlayTask)
+		{
+			((PlayTask) dropped).pending.set(false);
+		}
+		executor.execute(request);
+	}
+
+	private void loadSounds()
+	{
+		for (SoundOption sound : SoundOption.values())
+		{
+			if (sound == SoundOption.OFF || sound == SoundOption.CUSTOM)
+			{
+				continue;
+			}
+
+			try
+			{
+				pools.put(sound, new SoundPool(decodeResource(sound.getFileName())));
+			}
+			catch (UnsupportedAudioFileException | IOException | LineUnavailableException | IllegalArgumentException e)
+			{
+				// IllegalArgumentException is thrown when there is no mixer able to play the sound
+				log.warn("Unable to load sound {}", sound.getFileName(), e);
+			}
+		}
+
+		loadCustomSound();
+	}
+
+	private void loadCustomSound()
+	{
+		String fileName = customSoundFile;
+		if (fileName.isEmpty())
+		{
+			closeCustomSound();
+			return;
+		}
+
+		Path path;
+		try
+		{
+			path = StyleAlertPlugin.STYLE_ALERT_DIR.toPath().resolve(fileName).normalize();
+		}
+		catch (InvalidPathException e)
+		{
+			// Names with characters the file system rejects, such as <>:"|?* on Windows
+			if (!fileName.equals(invalidCustomSoundFile))
+			{
+				log.warn("Custom sound {} is not a valid file name", fileName, e);
+			}
+			closeCustomSound();
+			invalidCustomSoundFile = fileName;
+			return;
+		}
+		invalidCustomSoundFile = null;
+
+		if (!path.startsWith(StyleAlertPlugin.STYLE_ALERT_DIR.toPath().normalize()))
+		{
+			if (!path.equals(loadedCustomSoundPath))
+			{
+				log.warn("Custom sound {} is outside of {}", fileName, StyleAlertPlugin.STYLE_ALERT_DIR);
+			}
+			closeCustomSound();
+			loadedCustomSoundPath = path;
+			return;
+		}
+
+		long modified;
+		try
+		{
+			modified = Files.getLastModifiedTime(path).toMillis();
+		}
+		catch (IOException e)
+		{
+			if (!path.equals(loadedCustomSoundPath) || loadedCustomSoundModified != -1)
+			{
+				log.warn("Unable to find custom sound {}", path, e);
+			}
+			closeCustomSound();
+			loadedCustomSoundPath = path;
+			loadedCustomSoundModified = -1;
+			return;
+		}
+
+		// Failed loads are remembered as well, so a broken file is only retried once it is modified
+		if (path.equals(loadedCustomSoundPath) && modified == loadedCustomSoundModified)
+		{
+			return;
+		}
+
+		closeCustomSound();
+		loadedCustomSoundPath = path;
+		loadedCustomSoundModified = modified;
+
+		try
+		{
+			pools.put(SoundOption.CUSTOM, new SoundPool(decodeFile(path)));
+		}
+		catch (UnsupportedAudioFileException | IOException | LineUnavailableException | IllegalArgumentException e)
+		{
+			log.warn("Unable to load custom sound {}", path, e);
+		}
+	}
+
+	private void closeCustomSound()
+	{
+		SoundPool pool = pools.remove(SoundOption.CUSTOM);
+		if (pool != null)
+		{
+			pool.close();
+		}
+		loadedCustomSoundPath = null;
+	}
+
+	private void closeSounds()
+	{
+		for (SoundPool pool : pools.values())
+		{
+			pool.close();
+		}
+		pools.clear();
+		loadedCustomSoundPath = null;
+		invalidCustomSoundFile = null;
+	}
+
+	private int playingClips()
+	{
+		int playing = 0;
+		for (SoundPool pool : pools.values())
+		{
+			playing += pool.playing();
+		}
+		return playing;
+	}
+
+	private final class PlayTask implements Runnable
+	{
+		private final SoundOption sound;
+		private final AtomicBoolean pending = new AtomicBoolean();
+
+		private PlayTask(SoundOption sound)
+		{
+			this.sound = sound;
+		}
+
+		@Override
+		public void run()
+		{
+			pending.set(false);
+
+			if (sound == SoundOption.CUSTOM)
+			{
+				// Only checks the modification time unless the file changed since it was loaded
+				loadCustomSound();
+			}
+
+			SoundPool pool = pools.get(sound);
+			if (pool != null)
+			{
+				pool.play(volume, playingClips() < MAX_PLAYING_CLIPS);
+			}
+		}
+	}
+
+	private DecodedSound decodeResource(String soundFilePath) throws UnsupportedAudioFileException, IOException
+	{
+		InputStream soundStream = getClass().getClassLoader().getResourceAsStream(soundFilePath);
+		if (soundStream == null)
+		{
+			throw new IOException("Sound file not found: " + soundFilePath);
+		}
+
+		// AudioSystem needs mark/reset support to detect the file format
+		try (InputStream in = new BufferedInputStream(soundStream))
+		{
+			return decode(in);
+		}
+	}
+
+	private static DecodedSound decodeFile(Path path) throws UnsupportedAudioFileException, IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			if (size > MAX_SOUND_BYTES)
+			{
+				throw new IOException("Sound file is larger than " + MAX_SOUND_BYTES + " bytes");
+			}
+
+			// Read up front instead of mapped, a mapping would keep the file locked on Windows until it is collected
+			ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+			while (buffer.hasRemaining())
+			{
+				if (channel.read(buffer) == -1)
+				{
+					break;
+				}
+			}
+			buffer.flip();
+			return decode(new ByteBufferInputStream(buffer));
+		}
+	}
+
+	private static DecodedSound decode(InputStream in) throws UnsupportedAudioFileException, IOException
+	{
+		try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(in))
+		{
+			AudioFormat format = audioStream.getFormat();
+			if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED)
+			{
+				return new DecodedSound(format, readSamples(audioStream));
+			}
+
+			AudioFormat pcmFormat = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED,
+				format.getSampleRate(), 16, format.getChannels(), format.getChannels() * 2,
+				format.getSampleRate(), false);
+			if (!AudioSystem.isConversionSupported(pcmFormat, format))
+			{
+				throw new UnsupportedAudioFileException("Unable to convert " + format + " to PCM");
+			}
+
+			try (AudioInputStream pcmStream = AudioSystem.getAudioInputStream(pcmFormat, audioStream))
+			{
+				return new DecodedSound(pcmFormat, readSamples(pcmStream));
+			}
+		}
+	}
+
+	// The conversion to PCM can grow the samples past the size of the file
+	private static byte[] readSamples(AudioInputStream in) throws IOException
+	{
+		byte[] data = in.readNBytes(MAX_SOUND_BYTES + 1);
+		if (data.length > MAX_SOUND_BYTES)
+		{
+			throw new IOException("Decoded sound is larger than " + MAX_SOUND_BYTES + " bytes");
+		}
+		return data;
+	}
+
+	// Reads a buffer without copying it, with the mark/reset support AudioSystem needs to detect the file format
+	private static final class ByteBufferInputStream extends InputStream
+	{
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer)
+		{
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read()
+		{
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len)
+		{
+			if (len == 0)
+			{
+				return 0;
+			}
+			if (!buffer.hasRemaining())
+			{
+				return -1;
+			}
+
+			int read = Math.min(len, buffer.remaining());
+			buffer.get(b, off, read);
+			return read;
+		}
+
+		@Override
+		public long skip(long n)
+		{
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available()
+		{
+			return buffer.remaining();
+		}
+
+		@Override
+		public boolean markSupported()
+		{
+			return true;
+		}
+
+		@Override
+		public void mark(int readLimit)
+		{
+			buffer.mark();
+		}
+
+		@Override
+		public void reset()
+		{
+			buffer.reset();
+		}
+	}
+
+	private static final class DecodedSound
+	{
+		private final AudioFormat format;
+		private final byte[] data;
+
+		private DecodedSound(AudioFormat format, byte[] data)
+		{
+			this.format = format;
+			this.data = data;
+		}
+	}
+
+	private static final class SoundPool
+	{
+		private final Clip[] clips = new Clip[CLIPS_PER_SOUND];
+		private final FloatControl[] gainControls = new FloatControl[CLIPS_PER_SOUND];
+		private int next;
+
+		private SoundPool(DecodedSound sound) throws LineUnavailableException
+		{
+			try
+			{
+				for (int i = 0; i < CLIPS_PER_SOUND; i++)
+				{
+					Clip clip = AudioSystem.getClip();
+					clips[i] = clip;
+					clip.open(sound.format, sound.data, 0, sound.data.length);
+					if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN))
+					{
+						gainControls[i] = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+					}
+				}
+			}
+			catch (LineUnavailableException | RuntimeException e)
+			{
+				close();
+				throw e;
+			}
+		}
+
+		// Restarting a line that is still playing does not add to the playing lines, so it is allowed even at the cap
+		private void play(float volume, boolean canStartLine)
+		{
+			// Reuse the least recently started line, cutting it off if it is still playing
+			Clip clip = clips[next];
+			if (!canStartLine && !clip.isRunning())
+			{
+				return;
+			}
+
+			FloatControl gainControl = gainControls[next];
+			next = (next + 1) % CLIPS_PER_SOUND;
+
+			if (gainControl != null)
+			{
+				gainControl.setValue(gainControl.getMinimum() + (volume * (gainControl.getMaximum() - gainControl.getMinimum())));
+			}
+
+			clip.stop();
+			clip.setFramePosition(0);
+			clip.start();
+		}
+
+		private int playing()
+		{
+			int playing = 0;
+			for (Clip clip : clips)
+			{
+				if (clip.isRunning())
+				{
+					++playing;
+				}
+			}
+			return playing;
+		}
+
+		private void close()
+		{
+			for (Clip clip : clips)
+			{
+				if (clip != null)
+				{
+					clip.close();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Packs the alert state shared between the client and render threads into a single long, so it can be published
+ * with one volatile write and always read consistently without locks.
+ * <pre>
+ * bits  0-4   attack style ordinal + 1, 0 if no style is known
+ * bit   5     warned style selected
+ * bits  6-21  generation, incremented on every change
+ * bits 22-63  flash start in milliseconds on the {@link #nowMillis()} clock
+ * </pre>
+ */
+final class AlertState
+{
+	static final long NONE = 0L;
+
+	private static final AttackStyle[] STYLES = AttackStyle.values();
+
+	private static final int STYLE_BITS = 5;
+	private static final long STYLE_MASK = (1L << STYLE_BITS) - 1;
+	private static final long WARNED_BIT = 1L << STYLE_BITS;
+	private static final int GENERATION_SHIFT = STYLE_BITS + 1;
+	private static final int GENERATION_BITS = 16;
+	private static final long GENERATION_MASK = (1L << GENERATION_BITS) - 1;
+	private static final int FLASH_START_SHIFT = GENERATION_SHIFT + GENERATION_BITS;
+
+	// Base of the monotonic millisecond clock, so flash starts fit in the remaining bits
+	private static final long EPOCH_NANOS = System.nanoTime();
+
+	private AlertState()
+	{
+	}
+
+	static long nowMillis()
+	{
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - EPOCH_NANOS);
+	}
+
+	// Returns the next state, with the generation bumped if anything changed
+	static long next(long state, @Nullable AttackStyle attackStyle, boolean warned, long flashStartMillis)
+	{
+		long next = (attackStyle == null ? 0 : attackStyle.ordinal() + 1)
+			| (warned ? WARNED_BIT : 0)
+			| (getGeneration(state) << GENERATION_SHIFT)
+			| (flashStartMillis << FLASH_START_SHIFT);
+		if (next == state)
+		{
+			return state;
+		}
+
+		long generation = (getGeneration(state) + 1) & GENERATION_MASK;
+		return (next & ~(GENERATION_MASK << GENERATION_SHIFT)) | (generation << GENERATION_SHIFT);
+	}
+
+	@Nullable
+	static AttackStyle getAttackStyle(long state)
+	{
+		int style = (int) (state & STYLE_MASK);
+		return style == 0 ? null : STYLES[style - 1];
+	}
+
+	static boolean isWarned(long state)
+	{
+		return (state & WARNED_BIT) != 0;
+	}
+
+	static int getGeneration(long state)
+	{
+		return (int) ((state >>> GENERATION_SHIFT) & GENERATION_MASK);
+	}
+
+	// Drops the flash start, leaving the attack style, warning and generation in the low 22 bits
+	static long withoutFlashStart(long state)
+	{
+		return state & ((1L << FLASH_START_SHIFT) - 1);
+	}
+
+	static long getFlashStartMillis(long state)
+	{
+		return state >>> FLASH_START_SHIFT;
+	}
+}
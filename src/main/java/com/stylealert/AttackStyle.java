@@ -43,11 +43,25 @@ public enum AttackStyle
 	private final String name;
 	@Getter
 	private final Skill[] skills;
+	// Bit per Skill ordinal of the skills this style trains
+	@Getter
+	private final int skillMask;
 
 	AttackStyle(String name, Skill... skills)
 	{
 		this.name = name;
 		this.skills = skills;
+		this.skillMask = skillMask(skills);
+	}
+
+	static int skillMask(Skill... skills)
+	{
+		int mask = 0;
+		for (Skill skill : skills)
+		{
+			mask |= 1 << skill.ordinal();
+		}
+		return mask;
 	}
 }
 
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Pre-rasterized vignette for the border flash style. The edges fade from the flash color to transparent and are
+ * rendered once into compatible images, so each frame only blits the edge strips and never touches the center of the canvas.
+ * The strips are only rebuilt when the canvas size or the flash color changes.
+ * The corners are part of the horizontal strips only, so no pixel is drawn twice.
+ */
+class BorderFlashImage
+{
+	// Fraction of the smaller canvas dimension covered by each edge
+	private static final int THICKNESS_DIVISOR = 6;
+
+	private int width;
+	private int height;
+	private Color color;
+
+	// Top edge including both corners, drawn flipped for the bottom edge
+	private BufferedImage horizontal;
+	// Left edge between the corners, drawn flipped for the right edge
+	private BufferedImage vertical;
+	private int thickness;
+
+	void draw(Graphics2D graphics, int width, int height, Color color)
+	{
+		if (width <= 0 || height <= 0)
+		{
+			return;
+		}
+
+		if (width != this.width || height != this.height || !color.equals(this.color) || horizontal == null)
+		{
+			rebuild(graphics, width, height, color);
+		}
+
+		graphics.drawImage(horizontal, 0, 0, null);
+		graphics.drawImage(horizontal, 0, height, width, height - thickness, 0, 0, width, thickness, null);
+		int verticalHeight = height - 2 * thickness;
+		graphics.drawImage(vertical, 0, thickness, null);
+		graphics.drawImage(vertical, width, thickness, width - thickness, height - thickness,
+			0, 0, thickness, verticalHeight, null);
+	}
+
+	void flush()
+	{
+		if (horizontal != null)
+		{
+			horizontal.flush();
+			vertical.flush();
+		}
+		horizontal = null;
+		vertical = null;
+		color = null;
+	}
+
+	private void rebuild(Graphics2D graphics, int width, int height, Color color)
+	{
+		flush();
+
+		this.width = width;
+		this.height = height;
+		this.color = color;
+		// At least one pixel, leaving at least one row between the corners
+		thickness = Math.max(1, Math.min(width, height) / THICKNESS_DIVISOR);
+		int verticalHeight = Math.max(1, height - 2 * thickness);
+
+		Color transparent = new Color(color.getRed(), color.getGreen(), color.getBlue(), 0);
+
+		horizontal = graphics.getDeviceConfiguration().createCompatibleImage(width, thickness, Transparency.TRANSLUCENT);
+		Graphics2D horizontalGraphics = horizontal.createGraphics();
+		horizontalGraphics.setPaint(new GradientPaint(0, 0, color, 0, thickness, transparent));
+		horizontalGraphics.fillRect(0, 0, width, thickness);
+		horizontalGraphics.dispose();
+		drawCorners(horizontal, thickness, color);
+
+		vertical = graphics.getDeviceConfiguration().createCompatibleImage(thickness, verticalHeight, Transparency.TRANSLUCENT);
+		Graphics2D verticalGraphics = vertical.createGraphics();
+		verticalGraphics.setPaint(new GradientPaint(0, 0, color, thickness, 0, transparent));
+		verticalGraphics.fillRect(0, 0, thickness, verticalHeight);
+		verticalGraphics.dispose();
+	}
+
+	// Fades each corner by the distance to the nearer edge, so it joins both gradients without a seam
+	private static void drawCorners(BufferedImage horizontal, int thickness, Color color)
+	{
+		int width = horizontal.getWidth();
+		int rgb = color.getRGB() & 0xFFFFFF;
+		for (int y = 0; y < thickness; y++)
+		{
+			for (int x = 0; x < thickness && x < width; x++)
+			{
+				int distance = Math.min(x, y);
+				int alpha = Math.round(color.getAlpha() * (thickness - distance - 0.5f) / thickness);
+				int argb = alpha << 24 | rgb;
+				horizontal.setRGB(x, y, argb);
+				horizontal.setRGB(width - 1 - x, y, argb);
+			}
+		}
+	}
+}
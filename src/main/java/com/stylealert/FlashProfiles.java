@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.Color;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.config.ConfigItem;
+
+/**
+ * Named profiles parsed from the profiles config, each compiled into complete {@link StyleAlertSettings} when the
+ * config changes, so switching profile is a single reference swap.
+ * <p>
+ * One profile per line, a name followed by the config keys it overrides, everything else comes from the config:
+ * <pre>
+ * pure: warnForAttack=true, warnForDefensive=true, flashColor=#FF0000
+ * zerker: warnForDefensive=false, flashInterval=RAPID, selectedSound=ON
+ * </pre>
+ */
+@Slf4j
+final class FlashProfiles
+{
+	static final FlashProfiles NONE = new FlashProfiles(new String[0], new StyleAlertSettings[0]);
+
+	// Config items of StyleAlertConfig by key name, the ones about the profiles themselves are left out
+	private static final Map<String, Method> CONFIG_ITEMS = new HashMap<>();
+
+	static
+	{
+		for (Method method : StyleAlertConfig.class.getMethods())
+		{
+			ConfigItem item = method.getAnnotation(ConfigItem.class);
+			if (item != null && !item.keyName().startsWith("profile"))
+			{
+				CONFIG_ITEMS.put(item.keyName(), method);
+			}
+		}
+	}
+
+	private final String[] names;
+	private final StyleAlertSettings[] settings;
+
+	private FlashProfiles(String[] names, StyleAlertSettings[] settings)
+	{
+		this.names = names;
+		this.settings = settings;
+	}
+
+	static FlashProfiles parse(String text, StyleAlertConfig config)
+	{
+		List<String> names = new ArrayList<>();
+		List<StyleAlertSettings> settings = new ArrayList<>();
+		for (String line : text.split("\\R"))
+		{
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#"))
+			{
+				continue;
+			}
+
+			int colon = line.indexOf(':');
+			String name = colon == -1 ? "" : line.substring(0, colon).trim();
+			if (name.isEmpty())
+			{
+				log.warn("Ignoring profile \"{}\": expected a name followed by a colon", line);
+				continue;
+			}
+
+			Map<String, Object> overrides = new HashMap<>();
+			for (String override : line.substring(colon + 1).split(","))
+			{
+				if (!override.isBlank())
+				{
+					parseOverride(name, override.trim(), overrides);
+				}
+			}
+
+			names.add(name);
+			settings.add(StyleAlertSettings.fromConfig(override(config, overrides)));
+		}
+		return names.isEmpty() ? NONE
+			: new FlashProfiles(names.toArray(new String[0]), settings.toArray(new StyleAlertSettings[0]));
+	}
+
+	int size()
+	{
+		return names.length;
+	}
+
+	String getName(int index)
+	{
+		return names[index];
+	}
+
+	StyleAlertSettings getSettings(int index)
+	{
+		return settings[index];
+	}
+
+	// Returns -1 if there is no profile with the name
+	int indexOf(String name)
+	{
+		for (int i = 0; i < names.length; i++)
+		{
+			if (names[i].equalsIgnoreCase(name))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static void parseOverride(String profile, String override, Map<String, Object> overrides)
+	{
+		int equals = override.indexOf('=');
+		String key = equals == -1 ? override : override.substring(0, equals).trim();
+		Method method = CONFIG_ITEMS.get(key);
+		if (equals == -1 || method == null)
+		{
+			log.warn("Ignoring \"{}\" in profile {}: expected a config key and a value", override, profile);
+			return;
+		}
+
+		String value = override.substring(equals + 1).trim();
+		try
+		{
+			overrides.put(key, parseValue(method.getReturnType(), value));
+		}
+		catch (IllegalArgumentException e)
+		{
+			log.warn("Ignoring \"{}\" in profile {}: {}", override, profile, e.getMessage());
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object parseValue(Class<?> type, String value)
+	{
+		if (type == boolean.class)
+		{
+			if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false"))
+			{
+				throw new IllegalArgumentException("expected true or false");
+			}
+			return Boolean.parseBoolean(value);
+		}
+		if (type == int.class)
+		{
+			return Integer.parseInt(value);
+		}
+		if (type == Color.class)
+		{
+			return Color.decode(value);
+		}
+		if (type.isEnum())
+		{
+			return Enum.valueOf((Class<Enum>) type, value.toUpperCase(Locale.ROOT));
+		}
+		if (type == String.class)
+		{
+			return value;
+		}
+		throw new IllegalArgumentException("unsupported config type " + type.getSimpleName());
+	}
+
+	// The config with some items replaced, only read while compiling the profile
+	private static StyleAlertConfig override(StyleAlertConfig config, Map<String, Object> overrides)
+	{
+		return (StyleAlertConfig) Proxy.newProxyInstance(StyleAlertConfig.class.getClassLoader(),
+			new Class<?>[]{StyleAlertConfig.class}, (proxy, method, args) ->
+			{
+				ConfigItem item = method.getAnnotation(ConfigItem.class);
+				Object value = item != null ? overrides.get(item.keyName()) : null;
+				return value != null ? value : method.invoke(config, args);
+			});
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+/**
+ * Timing of the flash, kept by the overlay for the lifetime of the plugin.
+ * The flash repeats every period, on for the first part of it and off for the rest, and its state is derived from the
+ * clock on every frame. Starting and stopping a flash only changes the start time, nothing is scheduled.
+ * <p>
+ * Render thread only.
+ */
+final class FlashScheduler
+{
+	private static final long STOPPED = -1;
+
+	private long startMillis = STOPPED;
+	// On and off toggles since the start, as of the last update
+	private long toggles;
+	private long elapsedMillis;
+
+	// Does nothing if the flash already runs from the start time
+	void start(long startMillis)
+	{
+		if (startMillis != this.startMillis)
+		{
+			this.startMillis = startMillis;
+			toggles = 0;
+			elapsedMillis = 0;
+		}
+	}
+
+	void stop()
+	{
+		startMillis = STOPPED;
+	}
+
+	// Advances the flash to the time, returning whether it toggled since the previous update
+	boolean update(long nowMillis, int periodMillis, int onMillis)
+	{
+		elapsedMillis = Math.max(0, nowMillis - startMillis);
+		long toggles = elapsedMillis / periodMillis * 2 + (elapsedMillis % periodMillis >= onMillis ? 1 : 0);
+		if (toggles > this.toggles)
+		{
+			this.toggles = toggles;
+			return true;
+		}
+		return false;
+	}
+
+	boolean isOn()
+	{
+		return (toggles & 1) == 0;
+	}
+
+	long getElapsedMillis()
+	{
+		return elapsedMillis;
+	}
+}
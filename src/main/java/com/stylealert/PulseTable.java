@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+
+/**
+ * One cycle of the pulse flash animation, precomputed when the config changes.
+ * The alpha eases from the flash color down to transparent and back along a cosine curve, and each frame only picks the
+ * step for the elapsed time, so rendering a pulse costs the same as the blink.
+ */
+final class PulseTable
+{
+	private static final int STEPS = 64;
+
+	// Flash color at each step, for the full screen flash
+	private final Color[] colors = new Color[STEPS];
+	// Alpha at each step, for drawing the pre-rasterized border
+	private final AlphaComposite[] composites = new AlphaComposite[STEPS];
+
+	PulseTable(Color flashColor)
+	{
+		for (int step = 0; step < STEPS; step++)
+		{
+			// Starts at full strength, so the first frame of a warning is as visible as with the blink
+			float strength = (float) (1 + Math.cos(2 * Math.PI * step / STEPS)) / 2;
+			colors[step] = new Color(flashColor.getRed(), flashColor.getGreen(), flashColor.getBlue(),
+				Math.round(flashColor.getAlpha() * strength));
+			composites[step] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, strength);
+		}
+	}
+
+	// A cycle lasts one flash period
+	static int step(long elapsedMillis, int flashPeriodMillis)
+	{
+		return (int) (elapsedMillis % flashPeriodMillis * STEPS / flashPeriodMillis);
+	}
+
+	Color getColor(int step)
+	{
+		return colors[step];
+	}
+
+	AlphaComposite getComposite(int step)
+	{
+		return composites[step];
+	}
+}
@@ -24,42 +24,45 @@
  */
 package com.stylealert;
 
-import java.awt.Color;
+import com.stylealert.StyleAlertConfig.FlashStyle;
+import java.awt.Composite;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import javax.inject.Inject;
-import javax.sound.sampled.*;
-import javax.swing.Timer;
 import net.runelite.api.Client;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayPosition;
 
-import java.io.IOException;
-import java.io.InputStream;
-
-import com.stylealert.StyleAlertConfig.SoundOption;
-
-
 import static net.runelite.api.MenuAction.RUNELITE_OVERLAY_CONFIG;
 import static net.runelite.client.ui.overlay.OverlayManager.OPTION_CONFIGURE;
 
 class ScreenFlashOverlay extends Overlay
 {
 	private final StyleAlertPlugin plugin;
-	private final StyleAlertConfig config;
 	private final Client client; // Inject the Client object
+	private final AlertSoundPlayer soundPlayer;
+	private final AlertLatencyTracker latencyTracker;
 
-	private boolean flashActive = false; // Is the screen flashing right now?
-	private Timer flashTimer; // Timer for toggling the flash state
+	// Tracked from canvas resizes instead of querying the canvas every frame
+	private int canvasWidth;
+	private int canvasHeight;
+
+	// Render thread only
+	private final BorderFlashImage borderFlashImage = new BorderFlashImage();
+	// Render thread only, the settings of the last frame
+	private StyleAlertSettings renderedSettings;
+
+	// Render thread only, lives as long as the overlay so flashes never schedule anything
+	private final FlashScheduler flashScheduler = new FlashScheduler();
 
 	@Inject
-	private ScreenFlashOverlay(StyleAlertPlugin plugin, StyleAlertConfig config, Client client)
+	private ScreenFlashOverlay(StyleAlertPlugin plugin, Client client, AlertSoundPlayer soundPlayer,
+		AlertLatencyTracker latencyTracker)
 	{
 		this.plugin = plugin;
-		this.config = config; // Initialize the config object
 		this.client = client; // Initialize the Client object
+		this.soundPlayer = soundPlayer;
+		this.latencyTracker = latencyTracker;
 		setPosition(OverlayPosition.DYNAMIC);
 		addMenuEntry(RUNELITE_OVERLAY_CONFIG, OPTION_CONFIGURE, "Attack style overlay");
 	}
@@ -67,115 +70,98 @@ class ScreenFlashOverlay extends Overlay
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
-		boolean warnedSkillSelected = plugin.isWarnedSkillSelected();
+		StyleAlertSettings settings = plugin.getSettings();
+		if (settings != renderedSettings)
+		{
+			renderedSettings = settings;
+			// The border images take megabytes at high resolutions, so they are not kept for another flash style
+			if (settings.getFlashStyle() != FlashStyle.BORDER)
+			{
+				borderFlashImage.flush();
+			}
+		}
 
-		// Check if flashing is enabled in the config
-		if (config.enableFlashing() && warnedSkillSelected)
+		long alertState = plugin.getAlertState();
+		long alertFlashEndMillis = plugin.getAlertFlashEndMillis();
+		long nowMillis = AlertState.nowMillis();
+
+		// The flash starts in the active state when the warning or the alert started
+		long flashStartMillis;
+		if (AlertState.isWarned(alertState))
+		{
+			flashStartMillis = AlertState.getFlashStartMillis(alertState);
+		}
+		else if (nowMillis < alertFlashEndMillis)
 		{
-			startFlashing();
+			flashStartMillis = alertFlashEndMillis - plugin.getAlertFlashMillis();
 		}
 		else
 		{
-			// Stop flashing if the warned skill is no longer selected or flashing is disabled
-			stopFlashing();
+			// Stop flashing if the warned skill is no longer selected
+			flashScheduler.stop();
+			return null;
 		}
 
-		// Only render the flashing effect if flashActive is true
-		if (flashActive)
+		if (!settings.isFlashEnabled())
 		{
-			// Get the client's dimensions to cover the full window
-			Dimension clientDimensions = client.getCanvas().getSize();
-
-			// Get the color from the configuration
-			Color flashColor = config.flashColor(); // Use configurable flash color
-
-			// Get the transparency value from the configuration
-			int transparency = config.flashTransparency().getTransparency();
-
-			// Draw a semi-transparent overlay covering the entire client
-			graphics.setColor(new Color(flashColor.getRed(), flashColor.getGreen(), flashColor.getBlue(), transparency));
-			graphics.fillRect(0, 0, clientDimensions.width, clientDimensions.height);
+			flashScheduler.stop();
+			return null;
 		}
 
-		return null;
-	}
-
-	private void playSound(String soundFilePath)
-	{
-		if (soundFilePath.equals(SoundOption.OFF.getFileName()))
+		flashScheduler.start(flashStartMillis);
+		if (flashScheduler.update(nowMillis, settings.getFlashPeriodMillis(), settings.getFlashOnMillis()))
 		{
-			return; // Don't play any sound if OFF is selected
+			// Play the selected sound on every toggle
+			soundPlayer.play(settings.getSound(), settings.getSoundVolume());
 		}
 
-		try
+		PulseTable pulseTable = settings.getPulseTable();
+		if (pulseTable != null)
 		{
-			InputStream soundStream = getClass().getClassLoader().getResourceAsStream(soundFilePath);
-
-			if (soundStream == null)
+			int step = PulseTable.step(flashScheduler.getElapsedMillis(), settings.getFlashPeriodMillis());
+			if (settings.getFlashStyle() == FlashStyle.BORDER)
 			{
-				System.err.println("Sound file not found: " + soundFilePath);
-				return;
+				Composite composite = graphics.getComposite();
+				graphics.setComposite(pulseTable.getComposite(step));
+				borderFlashImage.draw(graphics, canvasWidth, canvasHeight, settings.getFlashColor());
+				graphics.setComposite(composite);
 			}
-
-			AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundStream);
-			Clip clip = AudioSystem.getClip();
-			clip.open(audioStream);
-
-			// Adjust the volume based on user preference
-			float volume = config.soundVolume().getVolume();
-			FloatControl volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-			volumeControl.setValue(volumeControl.getMinimum() + (volume * (volumeControl.getMaximum() - volumeControl.getMinimum())));
-
-			clip.start();
+			else
+			{
+				graphics.setColor(pulseTable.getColor(step));
+				graphics.fillRect(0, 0, canvasWidth, canvasHeight);
+			}
+			latencyTracker.flashRendered();
 		}
-		catch (UnsupportedAudioFileException | IOException | LineUnavailableException e)
+		// Only render the flashing effect in the active half of the toggle
+		else if (flashScheduler.isOn())
 		{
-			e.printStackTrace();
+			if (settings.getFlashStyle() == FlashStyle.BORDER)
+			{
+				borderFlashImage.draw(graphics, canvasWidth, canvasHeight, settings.getFlashColor());
+			}
+			else
+			{
+				// Draw a semi-transparent overlay covering the entire client
+				graphics.setColor(settings.getFlashColor());
+				graphics.fillRect(0, 0, canvasWidth, canvasHeight);
+			}
+			latencyTracker.flashRendered();
 		}
-	}
 
+		return null;
+	}
 
-
-	// Start flashing the screen indefinitely until the style is changed
-	void startFlashing()
-
+	// Called on the client thread whenever the canvas is resized
+	void updateCanvasSize()
 	{
-		if (flashTimer != null && flashTimer.isRunning())
-		{
-			// Flashing is already running, so no need to start it again
-			return;
-		}
-
-		flashActive = true; // Start in the active flash state
-
-		// Get the flash interval from the configuration
-		int flashInterval = config.flashInterval().getInterval();
-
-		// Timer to toggle flash on and off every configured interval
-		flashTimer = new Timer(flashInterval, new ActionListener()
-		{
-			@Override
-			public void actionPerformed(ActionEvent e)
-			{
-				flashActive = !flashActive; // Toggle flash state
-
-				// Play the selected sound
-				String soundFilePath = config.selectedSound().getFileName(); // Get the selected sound
-				playSound(soundFilePath);
-
-			}
-		});
-
-		flashTimer.start();
+		canvasWidth = client.getCanvasWidth();
+		canvasHeight = client.getCanvasHeight();
 	}
 
-	// Stop flashing when the attack style has been changed
-	void stopFlashing()
+	// Release the cached border images, called when the plugin shuts down
+	void flushImages()
 	{
-		if (flashTimer != null)
-		{
-			flashTimer.stop();
-			flashActive = false; // Reset the flash state
-		}
+		borderFlashImage.flush();
 	}
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarizes the session log written by {@link SessionRecorder}: for every session, how often and for how long each
+ * warned style was selected, and with which weapon type.
+ */
+final class SessionLogReader
+{
+	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+		.withZone(ZoneId.systemDefault());
+
+	private SessionLogReader()
+	{
+	}
+
+	static List<String> summarize(Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			return summarize(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	static List<String> summarize(ByteBuffer file) throws IOException
+	{
+		if (file.limit() < SessionRecorder.HEADER_BYTES || file.getInt(0) != SessionRecorder.MAGIC)
+		{
+			throw new IOException("Not a session log");
+		}
+		if (file.getInt(4) != SessionRecorder.VERSION)
+		{
+			throw new IOException("Unsupported session log version " + file.getInt(4));
+		}
+
+		int capacity = file.getInt(8);
+		long written = file.getLong(SessionRecorder.WRITTEN_OFFSET);
+		long first = Math.max(0, written - capacity);
+
+		List<String> lines = new ArrayList<>();
+		Session session = null;
+		for (long record = first; record < written; record++)
+		{
+			int offset = SessionRecorder.HEADER_BYTES + (int) (record % capacity) * SessionRecorder.RECORD_BYTES;
+			long timeMillis = file.getLong(offset);
+			long packed = file.getLong(offset + 8);
+			int kind = (int) (packed >>> 48);
+
+			if (kind == SessionRecorder.KIND_SESSION_END)
+			{
+				// Ends at the time it was recorded, even if nothing changed since the last transition
+				if (session != null)
+				{
+					session.finish(timeMillis, lines);
+					session = null;
+				}
+				continue;
+			}
+
+			if (session == null || kind == SessionRecorder.KIND_SESSION_START)
+			{
+				if (session != null)
+				{
+					// Not ended, the client stopped without shutting the plugin down
+					session.finish(session.lastMillis, lines);
+				}
+				session = new Session(timeMillis);
+			}
+
+			session.transition(timeMillis, (int) (packed >>> 32) & 0xFFFF, packed & 0xFFFFFFFFL);
+		}
+
+		if (session != null)
+		{
+			session.finish(session.lastMillis, lines);
+		}
+		return lines;
+	}
+
+	private static final class Session
+	{
+		private final long startMillis;
+		private long lastMillis;
+		private int transitions;
+
+		// The warned combat option currently selected, if any
+		private String warnedOption;
+		private long warnedSinceMillis;
+
+		// Warned combat option to the number and total length of the times it was selected
+		private final Map<String, long[]> warnedTotals = new LinkedHashMap<>();
+
+		private Session(long startMillis)
+		{
+			this.startMillis = startMillis;
+		}
+
+		private void transition(long timeMillis, int weaponType, long alertState)
+		{
+			lastMillis = timeMillis;
+			++transitions;
+
+			AttackStyle attackStyle = AlertState.getAttackStyle(alertState);
+			String option = AlertState.isWarned(alertState) && attackStyle != null
+				? attackStyle.getName() + " on weapon type " + weaponType
+				: null;
+			if (option != null && option.equals(warnedOption))
+			{
+				return;
+			}
+
+			endWarning(timeMillis);
+			if (option != null)
+			{
+				warnedOption = option;
+				warnedSinceMillis = timeMillis;
+			}
+		}
+
+		private void endWarning(long timeMillis)
+		{
+			if (warnedOption != null)
+			{
+				long[] totals = warnedTotals.computeIfAbsent(warnedOption, k -> new long[2]);
+				++totals[0];
+				totals[1] += timeMillis - warnedSinceMillis;
+				warnedOption = null;
+			}
+		}
+
+		private void finish(long endMillis, List<String> lines)
+		{
+			lastMillis = endMillis;
+			endWarning(endMillis);
+
+			long warnedCount = 0;
+			long warnedMillis = 0;
+			for (long[] totals : warnedTotals.values())
+			{
+				warnedCount += totals[0];
+				warnedMillis += totals[1];
+			}
+
+			lines.add(String.format("Session %s, %s long, %d transitions, warned %d times for %s",
+				TIME_FORMAT.format(Instant.ofEpochMilli(startMillis)), duration(lastMillis - startMillis),
+				transitions, warnedCount, duration(warnedMillis)));
+			warnedTotals.forEach((option, totals) ->
+				lines.add(String.format("  %s: %d times, %s", option, totals[0], duration(totals[1]))));
+		}
+	}
+
+	private static String duration(long millis)
+	{
+		return String.format("%.1fs", millis / 1000.0);
+	}
+}
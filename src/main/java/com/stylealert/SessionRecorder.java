@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the style and warning transitions of a session into a ring file of fixed 16 byte records, read back by
+ * {@link SessionLogReader}.
+ * <p>
+ * The client thread only stores each record into an in-memory ring. The ring is drained on the injected executor into
+ * {@link #SESSION_LOG_FILE}, which is mapped once when recording starts, so recording a transition neither allocates
+ * nor makes a syscall. When the in-memory ring is full the newest records are dropped.
+ * <p>
+ * Stopping the recording writes a {@link #KIND_SESSION_END} record with the state of the last record of the session, so
+ * a warning held until the end is measured up to that point.
+ */
+@Slf4j
+@Singleton
+class SessionRecorder
+{
+	static final File SESSION_LOG_FILE = new File(StyleAlertPlugin.STYLE_ALERT_DIR, "sessions.bin");
+
+	static final int MAGIC = 0x53414C47;
+	static final int VERSION = 1;
+	// Magic, version, capacity and the count of records ever written
+	static final int HEADER_BYTES = 24;
+	static final int WRITTEN_OFFSET = 16;
+	static final int RECORD_BYTES = 16;
+	// 1 MiB of records
+	static final int FILE_CAPACITY = 65536;
+
+	static final int KIND_TRANSITION = 0;
+	static final int KIND_SESSION_START = 1;
+	// Recording stopped or the player logged out, with the state at that time
+	static final int KIND_SESSION_END = 2;
+
+	// Records between drains, a gear switch writes at most a handful
+	private static final int RING_CAPACITY = 1024;
+	private static final long DRAIN_INTERVAL_MILLIS = 1000;
+
+	private final ScheduledExecutorService executor;
+	private final File logFile;
+	// Wall clock of the records
+	private final LongSupplier clock;
+
+	// Two longs per record, written by the client thread and read by the drain
+	private final long[] ring = new long[RING_CAPACITY * 2];
+	// Records stored in the ring, only advanced by the client thread
+	private volatile long produced;
+	// Records copied out of the ring, only advanced by the drain
+	private volatile long consumed;
+	private volatile boolean recording;
+	// Produced count when recording started, guarded by this
+	private long startProduced;
+
+	// Guarded by this
+	private MappedByteBuffer file;
+	private ScheduledFuture<?> drainFuture;
+	private long dropped;
+
+	@Inject
+	SessionRecorder(ScheduledExecutorService executor)
+	{
+		this(executor, SESSION_LOG_FILE, System::currentTimeMillis);
+	}
+
+	SessionRecorder(ScheduledExecutorService executor, File logFile, LongSupplier clock)
+	{
+		this.executor = executor;
+		this.logFile = logFile;
+		this.clock = clock;
+	}
+
+	synchronized void startUp()
+	{
+		if (recording)
+		{
+			return;
+		}
+
+		try
+		{
+			file = map();
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to open session log {}", logFile, e);
+			return;
+		}
+
+		consumed = produced;
+		startProduced = produced;
+		recording = true;
+		drainFuture = executor.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MILLIS, DRAIN_INTERVAL_MILLIS,
+			TimeUnit.MILLISECONDS);
+	}
+
+	synchronized void shutDown()
+	{
+		if (!recording)
+		{
+			return;
+		}
+
+		recording = false;
+		drainFuture.cancel(false);
+		drainFuture = null;
+		drain();
+		writeEnd();
+		file.force();
+		file = null;
+		if (dropped > 0)
+		{
+			log.debug("Dropped {} session log records", dropped);
+			dropped = 0;
+		}
+	}
+
+	boolean isRecording()
+	{
+		return recording;
+	}
+
+	// Client thread only
+	void record(int kind, int weaponType, long alertState)
+	{
+		if (!recording)
+		{
+			return;
+		}
+
+		long produced = this.produced;
+		if (produced - consumed >= RING_CAPACITY)
+		{
+			return;
+		}
+
+		int index = (int) (produced % RING_CAPACITY) * 2;
+		ring[index] = clock.getAsLong();
+		ring[index + 1] = pack(kind, weaponType, alertState);
+		// Publishes the record to the drain
+		this.produced = produced + 1;
+	}
+
+	// Kind and weapon type above the alert state without its flash start
+	static long pack(int kind, int weaponType, long alertState)
+	{
+		return (long) kind << 48 | (long) (weaponType & 0xFFFF) << 32 | AlertState.withoutFlashStart(alertState);
+	}
+
+	@VisibleForTesting
+	synchronized void drain()
+	{
+		if (file == null)
+		{
+			return;
+		}
+
+		long produced = this.produced;
+		long consumed = this.consumed;
+		long written = file.getLong(WRITTEN_OFFSET);
+		for (; consumed < produced; consumed++, written++)
+		{
+			int index = (int) (consumed % RING_CAPACITY) * 2;
+			put(written, ring[index], ring[index + 1]);
+		}
+		// Frees the ring slots for the client thread
+		this.consumed = consumed;
+		file.putLong(WRITTEN_OFFSET, written);
+	}
+
+	// Called after the last drain, when the client thread no longer records
+	private void writeEnd()
+	{
+		long produced = this.produced;
+		long state = 0;
+		if (produced > startProduced)
+		{
+			// Every change of the state is recorded, so the last record holds the current state
+			int index = (int) ((produced - 1) % RING_CAPACITY) * 2;
+			state = ring[index + 1] & ((1L << 48) - 1);
+		}
+
+		long written = file.getLong(WRITTEN_OFFSET);
+		put(written, clock.getAsLong(), (long) KIND_SESSION_END << 48 | state);
+		file.putLong(WRITTEN_OFFSET, written + 1);
+	}
+
+	private void put(long record, long timeMillis, long packed)
+	{
+		int offset = HEADER_BYTES + (int) (record % FILE_CAPACITY) * RECORD_BYTES;
+		file.putLong(offset, timeMillis);
+		file.putLong(offset + 8, packed);
+	}
+
+	private MappedByteBuffer map() throws IOException
+	{
+		Files.createDirectories(logFile.getParentFile().toPath());
+		try (FileChannel channel = FileChannel.open(logFile.toPath(),
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			long size = HEADER_BYTES + (long) FILE_CAPACITY * RECORD_BYTES;
+			boolean valid = channel.size() == size;
+			if (channel.size() > size)
+			{
+				channel.truncate(size);
+			}
+			// The mapping stays valid after the channel is closed
+			MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			if (!valid || file.getInt(0) != MAGIC || file.getInt(4) != VERSION || file.getInt(8) != FILE_CAPACITY)
+			{
+				file.putInt(0, MAGIC);
+				file.putInt(4, VERSION);
+				file.putInt(8, FILE_CAPACITY);
+				file.putInt(12, 0);
+				file.putLong(WRITTEN_OFFSET, 0);
+			}
+			return file;
+		}
+	}
+}
@@ -28,6 +28,9 @@ package com.stylealert;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
+import net.runelite.client.config.Keybind;
+import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
 import java.awt.*;
 
@@ -109,11 +112,33 @@ public interface StyleAlertConfig extends Config
 		return Color.RED; // Default flash color
 	}
 
+	@ConfigItem(
+			keyName = "flashStyle",
+			name = "Flash Style",
+			description = "Flash the whole screen, or only a fading border around its edges (cheaper on large displays)",
+			position = 8
+	)
+	default FlashStyle flashStyle()
+	{
+		return FlashStyle.FULL_SCREEN;
+	}
+
+	@ConfigItem(
+			keyName = "flashAnimation",
+			name = "Flash Animation",
+			description = "Blink the flash on and off, or pulse it smoothly in and out",
+			position = 9
+	)
+	default FlashAnimation flashAnimation()
+	{
+		return FlashAnimation.BLINK;
+	}
+
 	@ConfigItem(
 			keyName = "flashTransparency",
 			name = "Flash Opacity",
 			description = "Set the transparency for the screen flash (Light, Medium, Strong)",
-			position = 8
+			position = 10
 	)
 	default FlashTransparency flashTransparency()
 	{
@@ -123,35 +148,184 @@ public interface StyleAlertConfig extends Config
 	@ConfigItem(
 			keyName = "flashInterval",
 			name = "Flash Speed",
-			description = "Set the interval for the screen flash (Rapid, Normal, Slow)",
-			position = 9
+			description = "Set the interval for the screen flash (Rapid, Normal, Slow, or the custom period below)",
+			position = 11
 	)
 	default FlashInterval flashInterval()
 	{
 		return FlashInterval.NORMAL;
 	}
 
+	@ConfigItem(
+			keyName = "customFlashPeriod",
+			name = "Custom Flash Period",
+			description = "Time for one flash on and off when the flash speed is Custom",
+			position = 12
+	)
+	@Range(min = 50, max = 5000)
+	@Units(Units.MILLISECONDS)
+	default int customFlashPeriod()
+	{
+		return 1000;
+	}
+
+	@ConfigItem(
+			keyName = "flashDutyCycle",
+			name = "Flash Duty Cycle",
+			description = "Part of each flash period the flash is shown, higher is more visible but renders more flash frames",
+			position = 13
+	)
+	@Range(min = 10, max = 90)
+	@Units(Units.PERCENT)
+	default int flashDutyCycle()
+	{
+		return 50;
+	}
+
 	@ConfigItem(
 			keyName = "selectedSound",
 			name = "Notification Sound",
-			description = "Sound on, Sound off.",
-			position = 10
+			description = "Sound on, Sound off, or the custom sound file below.",
+			position = 14
 	)
 	default SoundOption selectedSound()
 	{
 		return SoundOption.OFF;
 	}
 
+	@ConfigItem(
+			keyName = "customSoundFile",
+			name = "Custom Sound File",
+			description = "Name of a WAV file in the .runelite/style-alert folder, played when the sound is set to Custom",
+			position = 15
+	)
+	default String customSoundFile()
+	{
+		return "";
+	}
+
 	@ConfigItem(
 			keyName = "soundVolume",
 			name = "Sound Volume",
 			description = "Set the volume level for notification sounds.",
-			position = 11
+			position = 16
 	)
 	default SoundVolume soundVolume() {
 		return SoundVolume.NORMAL; // Default to 100%
 	}
 
+	@ConfigItem(
+			keyName = "alertRules",
+			name = "Alert Rules",
+			description = "One rule per line refining the warnings above, later rules win. "
+				+ "For example \"warn Defence on 18\" or \"allow Controlled on 20\", where the numbers are weapon types",
+			position = 18
+	)
+	default String alertRules()
+	{
+		return "";
+	}
+
+	@ConfigItem(
+			keyName = "removeWarnedStyles",
+			name = "Remove warned styles",
+			description = "Hide the combat tab buttons of the warned styles",
+			position = 19
+	)
+	default boolean removeWarnedStyles()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "xpLeakAlert",
+			name = "XP Leak Alert",
+			description = "Notify and flash as soon as XP is gained in a warned skill",
+			position = 21
+	)
+	default boolean xpLeakAlert()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "autocastAlert",
+			name = "Autocast Alert",
+			description = "Notify and flash when the autocast spell changes",
+			position = 22
+	)
+	default boolean autocastAlert()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "autoRetaliateAlert",
+			name = "Auto Retaliate Alert",
+			description = "Notify and flash when auto retaliate is turned on or off",
+			position = 23
+	)
+	default boolean autoRetaliateAlert()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "specialAttackAlert",
+			name = "Special Attack Alert",
+			description = "Notify and flash when the special attack is enabled",
+			position = 24
+	)
+	default boolean specialAttackAlert()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "recordSessions",
+			name = "Record Sessions",
+			description = "Log when warned styles were selected, for how long and with which weapon to .runelite/style-alert/sessions.bin",
+			position = 20
+	)
+	default boolean recordSessions()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "showLatencyOverlay",
+			name = "Show Alert Latency",
+			description = "Debug overlay showing how long the flash takes to appear after a warned style is selected",
+			position = 17
+	)
+	default boolean showLatencyOverlay()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = "profiles",
+			name = "Profiles",
+			description = "One profile per line, a name followed by the settings it changes, switched with the profile hotkey. "
+				+ "For example \"pure: warnForDefensive=true, flashColor=#FF0000\"",
+			position = 25
+	)
+	default String profiles()
+	{
+		return "";
+	}
+
+	@ConfigItem(
+			keyName = "profileKeybind",
+			name = "Next Profile Hotkey",
+			description = "Switches to the next profile, and back to these settings after the last one",
+			position = 26
+	)
+	default Keybind profileKeybind()
+	{
+		return Keybind.NOT_SET;
+	}
+
 	enum SoundVolume {
 		NORMAL(0.6f),
 		LOUD(0.7f),
@@ -172,7 +346,9 @@ public interface StyleAlertConfig extends Config
 	enum SoundOption
 	{
 		OFF("off"), // Add this line for the OFF option
-		ON("net/runelite/client/notification.wav");
+		ON("net/runelite/client/notification.wav"),
+		// Played from the configured custom sound file
+		CUSTOM(null);
 
 		private final String fileName;
 
@@ -192,7 +368,9 @@ public interface StyleAlertConfig extends Config
 	{
 		RAPID(250),
 		NORMAL(500),
-		SLOW(750);
+		SLOW(750),
+		// Uses the custom flash period
+		CUSTOM(0);
 
 		private final int interval;
 
@@ -207,6 +385,18 @@ public interface StyleAlertConfig extends Config
 		}
 	}
 
+	enum FlashStyle
+	{
+		FULL_SCREEN,
+		BORDER
+	}
+
+	enum FlashAnimation
+	{
+		BLINK,
+		PULSE
+	}
+
 	enum FlashTransparency
 	{
 		LIGHT(50),
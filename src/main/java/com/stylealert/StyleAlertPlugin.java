@@ -26,35 +26,51 @@
 package com.stylealert;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import com.google.inject.Provides;
+import java.io.File;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
 
+import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
-import net.runelite.api.EnumID;
 import net.runelite.api.GameState;
-import net.runelite.api.ParamID;
+import net.runelite.api.ScriptID;
 import net.runelite.api.Skill;
-import net.runelite.api.StructComposition;
 import net.runelite.api.VarPlayer;
 import net.runelite.api.Varbits;
+import net.runelite.api.events.CanvasSizeChanged;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ScriptPostFired;
+import net.runelite.api.events.StatChanged;
 import net.runelite.api.events.VarbitChanged;
+import net.runelite.api.gameval.VarPlayerID;
+import net.runelite.api.gameval.VarbitID;
+import net.runelite.api.widgets.ComponentID;
+import net.runelite.api.widgets.Widget;
+import net.runelite.client.Notifier;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatMessageManager;
+import net.runelite.client.chat.QueuedMessage;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.input.KeyManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
-import static com.stylealert.AttackStyle.CASTING;
-import static com.stylealert.AttackStyle.DEFENSIVE;
-import static com.stylealert.AttackStyle.DEFENSIVE_CASTING;
-import static com.stylealert.AttackStyle.OTHER;
 import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.util.HotkeyListener;
 
+@Slf4j
 @PluginDescriptor(
 	name = "Style Alert",
 	description = "Add fullscreen flashing when a warned style gets toggled.",
@@ -62,12 +78,61 @@ import net.runelite.client.ui.overlay.OverlayManager;
 )
 public class StyleAlertPlugin extends Plugin
 {
+	// Custom sounds, the weapon style cache and the session log
+	static final File STYLE_ALERT_DIR = new File(RuneLite.RUNELITE_DIR, "style-alert");
+
+	// How long the flash runs after an alert, such as XP gained in a warned skill
+	static final long ALERT_FLASH_MILLIS = 3000;
+
+	// Combat tab widgets of each combat option, in the order of the WarnedStyleLookup combat option bits
+	private static final int[][] COMBAT_OPTION_WIDGETS = {
+		{ComponentID.COMBAT_STYLE_ONE},
+		{ComponentID.COMBAT_STYLE_TWO},
+		{ComponentID.COMBAT_STYLE_THREE},
+		{ComponentID.COMBAT_STYLE_FOUR},
+		{ComponentID.COMBAT_SPELLS},
+		{ComponentID.COMBAT_DEFENSIVE_SPELL_BOX, ComponentID.COMBAT_DEFENSIVE_SPELL_ICON,
+			ComponentID.COMBAT_DEFENSIVE_SPELL_SHIELD, ComponentID.COMBAT_DEFENSIVE_SPELL_TEXT},
+	};
+
 	private int equippedWeaponTypeVarbit = -1;
-	private AttackStyle attackStyle;
-	private final Set<Skill> warnedSkills = EnumSet.noneOf(Skill.class);
-	private boolean warnedSkillSelected;
-	// Weapon type, component, hidden
-	private final Table<Integer, Integer, Boolean> widgetsToHide = HashBasedTable.create();
+	// Attack style, warning and flash start, written only on the client thread and read by the overlay every frame
+	private volatile long alertState = AlertState.NONE;
+	// Combat option the current attack style was resolved from
+	private int attackStyleWeaponType = -1;
+	private int attackStyleIndex = -1;
+	private int attackStyleCastingMode = -1;
+	// Client thread only, the lookups of the config and of each profile, indexed by profile index + 1
+	private WarnedStyleLookup[] warnedStyleLookups = new WarnedStyleLookup[1];
+	// Set when a watched varbit changed since the last client tick
+	private boolean attackStyleDirty;
+	// Profiles and the settings in use, replaced as a whole by a reload or a profile switch
+	private final AtomicReference<ProfileSelection> profileSelection = new AtomicReference<>();
+	// Set while a settings reload is queued on the client thread
+	private final AtomicBoolean settingsReloadScheduled = new AtomicBoolean();
+	private volatile boolean running;
+	// Weapon type and combat options the combat tab widgets were last hidden for
+	private int hiddenWidgetsWeaponType = -1;
+	private int hiddenCombatOptions;
+	// Client thread only, the flash overlay is only registered while a warning is active
+	private boolean flashOverlayAdded;
+	// End of the flash raised by an alert, on the AlertState clock, 0 if none.
+	// Written only on the client thread and read by the overlay every frame
+	private volatile long alertFlashEndMillis;
+	// Only shortened by tests, so they do not wait for a whole alert flash
+	private volatile long alertFlashMillis = ALERT_FLASH_MILLIS;
+	// Client thread only
+	private final XpLeakGuard xpLeakGuard = new XpLeakGuard();
+	// Client thread only, skills the XP of which leaks with the selected style, updated with the warning
+	private int xpLeakSkillMask;
+	// Client thread only, handlers of every var the plugin reacts to
+	private final VarWatchRegistry varWatches = createVarWatches();
+	// Client thread only, cleared while the server sends the vars of a new login so they don't raise alerts
+	private boolean varAlertsArmed;
+	// Client thread only, set when logging out ended the recorded session
+	private boolean sessionEnded;
+	// Client thread only, set while the weapon styles still have to be resolved and written to the cache
+	private boolean weaponStylesUnsaved;
 
 	@Inject
 	private Client client;
@@ -85,6 +150,45 @@ public class StyleAlertPlugin extends Plugin
 	@Inject
 	private ScreenFlashOverlay flashOverlay; // Added this line
 
+	@Inject
+	private WeaponStyleTable weaponStyleTable;
+
+	@Inject
+	private WeaponStyleCache weaponStyleCache;
+
+	@Inject
+	private AlertSoundPlayer soundPlayer;
+
+	@Inject
+	private AlertLatencyTracker latencyTracker;
+
+	@Inject
+	private SessionRecorder sessionRecorder;
+
+	@Inject
+	private ScheduledExecutorService executor;
+
+	@Inject
+	private Notifier notifier;
+
+	@Inject
+	private KeyManager keyManager;
+
+	@Inject
+	private ChatMessageManager chatMessageManager;
+
+	private final HotkeyListener profileHotkeyListener = new HotkeyListener(() -> getSettings().getProfileKeybind())
+	{
+		@Override
+		public void hotkeyPressed()
+		{
+			nextProfile();
+		}
+	};
+
+	@Inject
+	private AlertLatencyOverlay latencyOverlay;
+
 	@Provides
 	StyleAlertConfig provideConfig(ConfigManager configManager)
 	{
@@ -94,14 +198,36 @@ public class StyleAlertPlugin extends Plugin
 	@Override
 	protected void startUp() throws Exception
 	{
-		overlayManager.add(flashOverlay); // Added this line
+		running = true;
+		loadSettings();
+		soundPlayer.setCustomSoundFile(getSettings().getCustomSoundFile());
+		soundPlayer.startUp();
+		keyManager.registerKeyListener(profileHotkeyListener);
+		updateLatencyOverlay();
+		updateSessionRecorder();
+
+		// Read here, so the client thread never waits on the disk
+		int revision = client.getRevision();
+		AttackStyle[][] cachedWeaponStyles = weaponStyleCache.load(revision);
 
 		clientThread.invoke(() ->
 		{
-			resetWarnings(); // setup warnedSkills
+			if (cachedWeaponStyles != null)
+			{
+				weaponStyleTable.preload(revision, cachedWeaponStyles);
+			}
+			else
+			{
+				weaponStylesUnsaved = true;
+				saveWeaponStylesWhenLoaded(client.getGameState());
+			}
+
+			flashOverlay.updateCanvasSize();
 
 			if (client.getGameState() == GameState.LOGGED_IN)
 			{
+				varAlertsArmed = true;
+				xpLeakGuard.prime(client.getSkillExperiences());
 				int attackStyleVarbit = client.getVarpValue(VarPlayer.ATTACK_STYLE);
 				equippedWeaponTypeVarbit = client.getVarbitValue(Varbits.EQUIPPED_WEAPON_TYPE);
 				int castingModeVarbit = client.getVarbitValue(Varbits.DEFENSIVE_CASTING_MODE);
@@ -110,6 +236,7 @@ public class StyleAlertPlugin extends Plugin
 					attackStyleVarbit,
 					castingModeVarbit);
 				updateWarning();
+				updateHiddenWidgets(true);
 			}
 		});
 	}
@@ -117,204 +244,580 @@ public class StyleAlertPlugin extends Plugin
 	@Override
 	protected void shutDown()
 	{
-		overlayManager.remove(flashOverlay); // Added this line
+		running = false;
+		overlayManager.remove(latencyOverlay);
+		keyManager.unregisterKeyListener(profileHotkeyListener);
+		soundPlayer.shutDown();
+		// Queued behind a start still waiting on the executor
+		executor.execute(sessionRecorder::shutDown);
 
-		warnedSkills.clear();
+		clientThread.invoke(() ->
+		{
+			overlayManager.remove(flashOverlay);
+			flashOverlayAdded = false;
+			alertFlashEndMillis = 0;
+			xpLeakGuard.reset();
+			varAlertsArmed = false;
+			sessionEnded = false;
+			weaponStylesUnsaved = false;
+			showHiddenWidgets();
+			weaponStyleTable.clear();
+			warnedStyleLookups = new WarnedStyleLookup[1];
+			attackStyleDirty = false;
+			alertState = AlertState.NONE;
+			flashOverlay.flushImages();
+
+			log.info("Varbit to flash latency: {}", latencyTracker.summary());
+			latencyTracker.reset();
+		});
 	}
 
 	@Nullable
 	AttackStyle getAttackStyle()
 	{
-		return attackStyle;
+		return AlertState.getAttackStyle(alertState);
 	}
 
 	boolean isWarnedSkillSelected()
 	{
-		return warnedSkillSelected;
+		return AlertState.isWarned(alertState);
+	}
+
+	long getAlertState()
+	{
+		return alertState;
+	}
+
+	long getAlertFlashEndMillis()
+	{
+		return alertFlashEndMillis;
+	}
+
+	long getAlertFlashMillis()
+	{
+		return alertFlashMillis;
+	}
+
+	@VisibleForTesting
+	void setAlertFlashMillis(long alertFlashMillis)
+	{
+		this.alertFlashMillis = alertFlashMillis;
+	}
+
+	StyleAlertSettings getSettings()
+	{
+		return profileSelection.get().settings;
 	}
 
 
 	@Subscribe
 	public void onVarbitChanged(VarbitChanged event)
 	{
-		if (event.getVarpId() == VarPlayer.ATTACK_STYLE
-			|| event.getVarbitId() == Varbits.EQUIPPED_WEAPON_TYPE
-			|| event.getVarbitId() == Varbits.DEFENSIVE_CASTING_MODE)
-		{
-			final int currentAttackStyleVarbit = client.getVarpValue(VarPlayer.ATTACK_STYLE);
-			final int currentEquippedWeaponTypeVarbit = client.getVarbitValue(Varbits.EQUIPPED_WEAPON_TYPE);
-			final int currentCastingModeVarbit = client.getVarbitValue(Varbits.DEFENSIVE_CASTING_MODE);
+		varWatches.dispatch(event);
+	}
 
+	private VarWatchRegistry createVarWatches()
+	{
+		VarWatchRegistry varWatches = new VarWatchRegistry();
+		varWatches.watchVarp(VarPlayer.ATTACK_STYLE, this::attackStyleVarChanged);
+		varWatches.watchVarbit(Varbits.EQUIPPED_WEAPON_TYPE, this::attackStyleVarChanged);
+		varWatches.watchVarbit(Varbits.DEFENSIVE_CASTING_MODE, this::attackStyleVarChanged);
+		varWatches.watchVarbit(VarbitID.AUTOCAST_SPELL, this::autocastSpellChanged);
+		varWatches.watchVarp(VarPlayerID.OPTION_NODEF, this::autoRetaliateChanged);
+		varWatches.watchVarp(VarPlayer.SPECIAL_ATTACK_ENABLED, this::specialAttackChanged);
+		return varWatches;
+	}
 
-			equippedWeaponTypeVarbit = currentEquippedWeaponTypeVarbit;
+	private void attackStyleVarChanged(int value)
+	{
+		// A gear swap can change all three in the same tick, so only re-evaluate once at the end of it
+		attackStyleDirty = true;
+		latencyTracker.varbitChanged();
+	}
 
-			updateAttackStyle(equippedWeaponTypeVarbit, currentAttackStyleVarbit,
-				currentCastingModeVarbit);
-			updateWarning();
+	private void autocastSpellChanged(int value)
+	{
+		if (varAlertsArmed && getSettings().isAutocastAlert())
+		{
+			raiseAlert(value == 0 ? "Autocast spell cleared" : "Autocast spell changed");
+		}
+	}
 
+	private void autoRetaliateChanged(int value)
+	{
+		if (varAlertsArmed && getSettings().isAutoRetaliateAlert())
+		{
+			// Set while auto retaliate is off
+			raiseAlert(value == 0 ? "Auto retaliate turned on" : "Auto retaliate turned off");
+		}
+	}
+
+	private void specialAttackChanged(int value)
+	{
+		if (varAlertsArmed && value == 1 && getSettings().isSpecialAttackAlert())
+		{
+			raiseAlert("Special attack enabled");
 		}
 	}
 
 	@Subscribe
-	public void onConfigChanged(ConfigChanged event)
+	public void onClientTick(ClientTick event)
 	{
-		if (event.getGroup().equals("attackIndicator"))
+		if (alertFlashEndMillis != 0 && AlertState.nowMillis() >= alertFlashEndMillis)
 		{
-			boolean enabled = Boolean.TRUE.toString().equals(event.getNewValue());
-			clientThread.invokeLater(() ->
-			{
-				switch (event.getKey())
-				{
-					case "warnForDefensive":
-						updateWarnedSkills(enabled, Skill.DEFENCE);
-						break;
-					case "warnForAttack":
-						updateWarnedSkills(enabled, Skill.ATTACK);
-						break;
-					case "warnForStrength":
-						updateWarnedSkills(enabled, Skill.STRENGTH);
-						break;
-					case "warnForRanged":
-						updateWarnedSkills(enabled, Skill.RANGED);
-						break;
-					case "warnForMagic":
-						updateWarnedSkills(enabled, Skill.MAGIC);
-						break;
-				}
-				updateWarning();
-			});
+			alertFlashEndMillis = 0;
+			updateFlashOverlay();
+		}
+
+		if (!attackStyleDirty)
+		{
+			return;
 		}
+
+		attackStyleDirty = false;
+
+		final int currentAttackStyleVarbit = client.getVarpValue(VarPlayer.ATTACK_STYLE);
+		final int currentEquippedWeaponTypeVarbit = client.getVarbitValue(Varbits.EQUIPPED_WEAPON_TYPE);
+		final int currentCastingModeVarbit = client.getVarbitValue(Varbits.DEFENSIVE_CASTING_MODE);
+
+		equippedWeaponTypeVarbit = currentEquippedWeaponTypeVarbit;
+
+		updateAttackStyle(equippedWeaponTypeVarbit, currentAttackStyleVarbit,
+			currentCastingModeVarbit);
+		updateWarning();
+		latencyTracker.styleEvaluated();
+		updateHiddenWidgets(false);
 	}
 
+	@Subscribe
+	public void onStatChanged(StatChanged event)
+	{
+		if (!xpLeakGuard.xpChanged(event.getSkill(), event.getXp(), xpLeakSkillMask)
+			|| !getSettings().isXpLeakAlert())
+		{
+			return;
+		}
+
+		raiseAlert("Gained " + event.getSkill().getName() + " XP while it is warned");
+	}
 
-	private void resetWarnings()
+	private void raiseAlert(String message)
 	{
-		updateWarnedSkills(config.warnForAttack(), Skill.ATTACK);
-		updateWarnedSkills(config.warnForStrength(), Skill.STRENGTH);
-		updateWarnedSkills(config.warnForDefence(), Skill.DEFENCE);
-		updateWarnedSkills(config.warnForRanged(), Skill.RANGED);
-		updateWarnedSkills(config.warnForMagic(), Skill.MAGIC);
+		long nowMillis = AlertState.nowMillis();
+		// Keep the running flash going instead of restarting it, and notifying again, on every hit
+		if (alertFlashEndMillis <= nowMillis)
+		{
+			notifier.notify(message);
+			alertFlashEndMillis = nowMillis + alertFlashMillis;
+			updateFlashOverlay();
+		}
 	}
 
-	private void updateAttackStyle(int equippedWeaponType, int attackStyleIndex, int castingMode)
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event)
 	{
-		AttackStyle[] attackStyles = getWeaponTypeStyles(equippedWeaponType);
-		if (attackStyleIndex < attackStyles.length)
+		saveWeaponStylesWhenLoaded(event.getGameState());
+
+		// The stats of the next account are sent again after logging in
+		if (event.getGameState() == GameState.LOGIN_SCREEN)
 		{
-			// from script4525
-			// Even though the client has 5 attack styles for Staffs, only attack styles 0-4 are used, with an additional
-			// casting mode set for defensive casting
-			if (attackStyleIndex == 4)
+			xpLeakGuard.reset();
+			if (sessionRecorder.isRecording() && !sessionEnded)
 			{
-				attackStyleIndex += castingMode;
+				sessionRecorder.record(SessionRecorder.KIND_SESSION_END, attackStyleWeaponType, alertState);
+				sessionEnded = true;
 			}
+		}
 
-			attackStyle = attackStyles[attackStyleIndex];
-			if (attackStyle == null)
-			{
-				attackStyle = OTHER;
-			}
+		// As are the vars, on logging in and on hopping
+		if (event.getGameState() == GameState.LOGIN_SCREEN || event.getGameState() == GameState.HOPPING)
+		{
+			varAlertsArmed = false;
 		}
 	}
 
-	private AttackStyle[] getWeaponTypeStyles(int weaponType)
+	@Subscribe
+	public void onGameTick(GameTick event)
 	{
-		// from script4525
-		int weaponStyleEnum = client.getEnum(EnumID.WEAPON_STYLES).getIntValue(weaponType);
-		if (weaponStyleEnum == -1)
+		// The vars of the login are all sent before its first tick
+		varAlertsArmed = true;
+
+		if (sessionEnded)
 		{
-				// Blue moon spear
-			if (weaponType == 22)
-			{
-				return new AttackStyle[]{
-					AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, null, DEFENSIVE, CASTING, DEFENSIVE_CASTING
-				};
-			}
-			if (weaponType == 30)
-			{
-				
-				// Partisan
-				return new AttackStyle[]{
-					AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, AttackStyle.AGGRESSIVE, DEFENSIVE
-				};
-			}
-			return new AttackStyle[0];
+			sessionEnded = false;
+			sessionRecorder.record(SessionRecorder.KIND_SESSION_START, attackStyleWeaponType, alertState);
 		}
-		int[] weaponStyleStructs = client.getEnum(weaponStyleEnum).getIntVals();
+	}
 
-		AttackStyle[] styles = new AttackStyle[weaponStyleStructs.length];
-		int i = 0;
-		for (int style : weaponStyleStructs)
+	@Subscribe
+	public void onScriptPostFired(ScriptPostFired event)
+	{
+		// The combat tab is rebuilt from scratch, showing every combat option again
+		if (event.getScriptId() == ScriptID.COMBAT_INTERFACE_SETUP)
 		{
-			StructComposition attackStyleStruct = client.getStructComposition(style);
-			String attackStyleName = attackStyleStruct.getStringValue(ParamID.ATTACK_STYLE_NAME);
+			updateHiddenWidgets(true);
+		}
+	}
+
+	@Subscribe
+	public void onCanvasSizeChanged(CanvasSizeChanged event)
+	{
+		flashOverlay.updateCanvasSize();
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		// Importing or syncing a profile changes every key at once, so all changes until the client thread gets to
+		// them are applied in one pass
+		if (event.getGroup().equals("attackIndicator") && settingsReloadScheduled.compareAndSet(false, true))
+		{
+			clientThread.invokeLater(this::reloadSettings);
+		}
+	}
 
-			AttackStyle attackStyle = AttackStyle.valueOf(attackStyleName.toUpperCase());
-			if (attackStyle == OTHER)
+	private void reloadSettings()
+	{
+		// Cleared first, so a change made while reloading schedules another pass
+		settingsReloadScheduled.set(false);
+		if (!running)
+		{
+			return;
+		}
+
+		loadSettings();
+		applySettings();
+	}
+
+	// Compiles the config and every profile into settings, keeping the selected profile if it still exists
+	private void loadSettings()
+	{
+		StyleAlertSettings configSettings = StyleAlertSettings.fromConfig(config);
+		FlashProfiles profiles = FlashProfiles.parse(config.profiles(), config);
+
+		// Publish the new snapshot at once, readers either see the old or the new settings
+		ProfileSelection selection;
+		ProfileSelection next;
+		do
+		{
+			selection = profileSelection.get();
+			int index = selection == null || selection.index == -1 ? -1
+				: profiles.indexOf(selection.profiles.getName(selection.index));
+			next = new ProfileSelection(profiles, configSettings, index);
+		}
+		while (!profileSelection.compareAndSet(selection, next));
+	}
+
+	// Cycles through the profiles and back to the config itself, without touching the config.
+	// Only swaps the selection on the calling thread, the settings are applied on the client thread.
+	@VisibleForTesting
+	void nextProfile()
+	{
+		ProfileSelection selection;
+		ProfileSelection next;
+		do
+		{
+			selection = profileSelection.get();
+			if (selection.profiles.size() == 0)
 			{
-				// "Other" is used for no style
-				++i;
-				continue;
+				return;
 			}
 
-			// "Defensive" is used for Defensive and also Defensive casting
-			if (i == 5 && attackStyle == DEFENSIVE)
+			next = selection.select(selection.index + 1 < selection.profiles.size() ? selection.index + 1 : -1);
+		}
+		while (!profileSelection.compareAndSet(selection, next));
+
+		clientThread.invoke(() ->
+		{
+			if (running)
 			{
-				attackStyle = DEFENSIVE_CASTING;
+				applySettings();
 			}
+		});
 
-			styles[i++] = attackStyle;
-		}
-		return styles;
+		String name = next.index == -1 ? "config" : next.profiles.getName(next.index);
+		chatMessageManager.queue(QueuedMessage.builder()
+			.type(ChatMessageType.CONSOLE)
+			.runeLiteFormattedMessage("Style alert profile: " + name)
+			.build());
+	}
+
+	// Client thread only
+	private void applySettings()
+	{
+		soundPlayer.setCustomSoundFile(getSettings().getCustomSoundFile());
+		updateLatencyOverlay();
+		updateSessionRecorder();
+		updateWarning();
+		updateHiddenWidgets(false);
 	}
 
-	private void updateWarnedSkills(boolean enabled, Skill skill)
+	private void updateLatencyOverlay()
 	{
-		if (enabled)
+		if (getSettings().isShowLatencyOverlay())
 		{
-			warnedSkills.add(skill);
+			overlayManager.add(latencyOverlay);
 		}
 		else
 		{
-			warnedSkills.remove(skill);
+			overlayManager.remove(latencyOverlay);
 		}
 	}
 
-	// update the 'warned skill selected' flag and also rebuild the hide widgets table
-	private void updateWarning()
+	// The enums and structs the styles are resolved from are only loaded once the client reaches the login screen
+	private void saveWeaponStylesWhenLoaded(GameState gameState)
+	{
+		if (weaponStylesUnsaved && (gameState == GameState.LOGIN_SCREEN || gameState == GameState.LOGGED_IN))
+		{
+			weaponStylesUnsaved = false;
+			// Resolve every weapon type once the current work is over and write them for the next start
+			clientThread.invokeLater(this::saveWeaponStyles);
+		}
+	}
+
+	private void saveWeaponStyles()
+	{
+		AttackStyle[][] styles = weaponStyleTable.resolveAll();
+		weaponStyleCache.save(weaponStyleTable.getRevision(), styles);
+	}
+
+	// Opening and flushing the session log runs on the executor, the client thread only records
+	private void updateSessionRecorder()
 	{
-		warnedSkillSelected = false;
-		if (attackStyle != null)
+		boolean recordSessions = getSettings().isRecordSessions();
+		executor.execute(() ->
 		{
-			for (Skill skill : attackStyle.getSkills())
+			if (recordSessions == sessionRecorder.isRecording())
+			{
+				return;
+			}
+
+			if (recordSessions)
 			{
-				if (warnedSkills.contains(skill))
+				sessionRecorder.startUp();
+				clientThread.invoke(() ->
 				{
-					warnedSkillSelected = true;
-					break;
-				}
+					sessionEnded = false;
+					sessionRecorder.record(SessionRecorder.KIND_SESSION_START, equippedWeaponTypeVarbit, alertState);
+				});
+			}
+			else
+			{
+				sessionRecorder.shutDown();
 			}
+		});
+	}
+
+	@VisibleForTesting
+	void updateAttackStyle(int equippedWeaponType, int attackStyleIndex, int castingMode)
+	{
+		AttackStyle[] attackStyles = getWeaponTypeStyles(equippedWeaponType);
+		AttackStyle style = WeaponStyleTable.getStyle(attackStyles, attackStyleIndex, castingMode);
+		if (style != null)
+		{
+			long state = alertState;
+			long next = AlertState.next(state, style, AlertState.isWarned(state), AlertState.getFlashStartMillis(state));
+			alertState = next;
+			if (next != state)
+			{
+				sessionRecorder.record(SessionRecorder.KIND_TRANSITION, equippedWeaponType, next);
+			}
+			attackStyleWeaponType = equippedWeaponType;
+			this.attackStyleIndex = attackStyleIndex;
+			attackStyleCastingMode = castingMode;
+		}
+	}
+
+	@VisibleForTesting
+	AttackStyle[] getWeaponTypeStyles(int weaponType)
+	{
+		return weaponStyleTable.getStyles(weaponType);
+	}
+
+	// update the 'warned skill selected' flag
+	@VisibleForTesting
+	void updateWarning()
+	{
+		long state = alertState;
+		AttackStyle attackStyle = AlertState.getAttackStyle(state);
+		// The lookup is only built once a style is resolved, the enums may not be loaded before
+		boolean warnedSkillSelected = attackStyle != null
+			&& getWarnedStyleLookup().isWarned(attackStyleWeaponType, attackStyleIndex, attackStyleCastingMode);
+		xpLeakSkillMask = XpLeakGuard.leakSkillMask(getSettings().getWarnedSkillMask(), attackStyle,
+			warnedSkillSelected);
+
+		if (warnedSkillSelected == AlertState.isWarned(state))
+		{
+			return;
 		}
-		// Added Trigger flash overlay based on the warning
+
+		// Added Trigger flash overlay based on the warning, the flash runs from when the warning started
+		long flashStartMillis = 0;
 		if (warnedSkillSelected)
 		{
-			flashOverlay.startFlashing();
+			flashStartMillis = AlertState.nowMillis();
+			latencyTracker.flashStarted(System.nanoTime());
+		}
+		long next = AlertState.next(state, attackStyle, warnedSkillSelected, flashStartMillis);
+		alertState = next;
+		sessionRecorder.record(SessionRecorder.KIND_TRANSITION, attackStyleWeaponType, next);
+
+		// Updated after the alert state is published, so the first frame rendered already sees the warning
+		updateFlashOverlay();
+	}
+
+	// The flash overlay is only registered while a warning or an alert flash is active
+	private void updateFlashOverlay()
+	{
+		boolean flashing = AlertState.isWarned(alertState) || alertFlashEndMillis != 0;
+		if (flashing == flashOverlayAdded)
+		{
+			return;
+		}
+
+		flashOverlayAdded = flashing;
+		if (flashing)
+		{
+			overlayManager.add(flashOverlay);
 		}
 		else
 		{
-			flashOverlay.stopFlashing();
+			overlayManager.remove(flashOverlay);
 		}
 	}
 
+	// Rebuilt when the warned skills, the alert rules or the game revision change
+	private WarnedStyleLookup getWarnedStyleLookup()
+	{
+		// Read once, so the lookup is built for the settings of the slot it is stored in
+		ProfileSelection selection = profileSelection.get();
+		StyleAlertSettings settings = selection.settings;
+		int slot = selection.index + 1;
+		if (slot >= warnedStyleLookups.length)
+		{
+			warnedStyleLookups = Arrays.copyOf(warnedStyleLookups, slot + 1);
+		}
+
+		// Each profile keeps its own lookup, so switching back and forth does not rebuild them
+		WarnedStyleLookup warnedStyleLookup = warnedStyleLookups[slot];
+		int warnedSkillMask = settings.getWarnedSkillMask();
+		// The rules are parsed again on every config change, so they are compared by identity
+		AlertRules alertRules = settings.getAlertRules();
+		int revision = client.getRevision();
+		if (warnedStyleLookup == null
+			|| warnedStyleLookup.getWarnedSkillMask() != warnedSkillMask
+			|| warnedStyleLookup.getAlertRules() != alertRules
+			|| warnedStyleLookup.getRevision() != revision)
+		{
+			warnedStyleLookup = WarnedStyleLookup.build(weaponStyleTable, warnedSkillMask, alertRules, revision);
+			warnedStyleLookups[slot] = warnedStyleLookup;
+		}
+		return warnedStyleLookup;
+	}
+
 	@VisibleForTesting
 	Set<Skill> getWarnedSkills()
 	{
+		int warnedSkillMask = getSettings().getWarnedSkillMask();
+		Set<Skill> warnedSkills = EnumSet.noneOf(Skill.class);
+		for (Skill skill : Skill.values())
+		{
+			if ((warnedSkillMask & AttackStyle.skillMask(skill)) != 0)
+			{
+				warnedSkills.add(skill);
+			}
+		}
 		return warnedSkills;
 	}
 
+	// Hides the combat options selecting a warned style, only touching the widgets when the weapon type or the
+	// warnings changed unless forced
+	private void updateHiddenWidgets(boolean force)
+	{
+		if (!getSettings().isRemoveWarnedStyles())
+		{
+			// Showing the hidden options again only needs the options hidden last, not the lookup
+			if (hiddenCombatOptions != 0)
+			{
+				showHiddenWidgets();
+			}
+			return;
+		}
+
+		// The enums the lookup is built from may not be loaded yet, and there is no combat tab outside of a login
+		if (client.getGameState() != GameState.LOGGED_IN)
+		{
+			return;
+		}
+
+		int weaponType = equippedWeaponTypeVarbit;
+		WarnedStyleLookup warnedStyleLookup = getWarnedStyleLookup();
+		int hidden = warnedStyleLookup.getWarnedCombatOptions(weaponType);
+		if (!force && weaponType == hiddenWidgetsWeaponType && hidden == hiddenCombatOptions)
+		{
+			return;
+		}
+
+		hiddenWidgetsWeaponType = weaponType;
+		hiddenCombatOptions = hidden;
+		setCombatOptionsHidden(warnedStyleLookup.getCombatOptions(weaponType), hidden);
+	}
+
+	private void showHiddenWidgets()
+	{
+		setCombatOptionsHidden(hiddenCombatOptions, 0);
+		hiddenWidgetsWeaponType = -1;
+		hiddenCombatOptions = 0;
+	}
+
+	private void setCombatOptionsHidden(int combatOptions, int hidden)
+	{
+		for (int combatOption = 0; combatOption < WarnedStyleLookup.COMBAT_OPTIONS; combatOption++)
+		{
+			if ((combatOptions & (1 << combatOption)) == 0)
+			{
+				continue;
+			}
+
+			for (int componentId : COMBAT_OPTION_WIDGETS[combatOption])
+			{
+				Widget widget = client.getWidget(componentId);
+				if (widget != null)
+				{
+					widget.setHidden((hidden & (1 << combatOption)) != 0);
+				}
+			}
+		}
+	}
+
 	@VisibleForTesting
-	Table<Integer, Integer, Boolean> getHiddenWidgets()
+	int getHiddenCombatOptions()
+	{
+		return hiddenCombatOptions;
+	}
+
+	// The profiles, with the selected one and its settings
+	private static final class ProfileSelection
 	{
-		return widgetsToHide;
+		private final FlashProfiles profiles;
+		// Settings of the config itself
+		private final StyleAlertSettings configSettings;
+		// Selected profile, -1 for the config itself
+		private final int index;
+		// Settings in use, either the config or the selected profile
+		private final StyleAlertSettings settings;
+
+		private ProfileSelection(FlashProfiles profiles, StyleAlertSettings configSettings, int index)
+		{
+			this.profiles = profiles;
+			this.configSettings = configSettings;
+			this.index = index;
+			settings = index == -1 ? configSettings : profiles.getSettings(index);
+		}
+
+		private ProfileSelection select(int index)
+		{
+			return new ProfileSelection(profiles, configSettings, index);
+		}
 	}
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import com.stylealert.StyleAlertConfig.FlashAnimation;
+import com.stylealert.StyleAlertConfig.FlashInterval;
+import com.stylealert.StyleAlertConfig.FlashStyle;
+import com.stylealert.StyleAlertConfig.SoundOption;
+import java.awt.Color;
+import lombok.Value;
+import net.runelite.api.Skill;
+import net.runelite.client.config.Keybind;
+
+/**
+ * Immutable snapshot of everything derived from {@link StyleAlertConfig}.
+ * It is rebuilt when the config changes, so the per-frame and per-tick paths never go through the config proxy.
+ */
+@Value
+class StyleAlertSettings
+{
+	boolean flashEnabled;
+	// Bit per Skill ordinal of the skills to warn for
+	int warnedSkillMask;
+	// Rules applied on top of the warned skills
+	AlertRules alertRules;
+	boolean removeWarnedStyles;
+	// Flash color with the configured transparency applied
+	Color flashColor;
+	FlashStyle flashStyle;
+	FlashAnimation flashAnimation;
+	// Null unless the flash pulses
+	PulseTable pulseTable;
+	// One flash on and off
+	int flashPeriodMillis;
+	// Part of the period the flash is on, always leaving some of it off
+	int flashOnMillis;
+	SoundOption sound;
+	String customSoundFile;
+	float soundVolume;
+	boolean showLatencyOverlay;
+	boolean recordSessions;
+	boolean xpLeakAlert;
+	boolean autocastAlert;
+	boolean autoRetaliateAlert;
+	boolean specialAttackAlert;
+	Keybind profileKeybind;
+
+	static StyleAlertSettings fromConfig(StyleAlertConfig config)
+	{
+		int warnedSkillMask = 0;
+		warnedSkillMask |= config.warnForAttack() ? AttackStyle.skillMask(Skill.ATTACK) : 0;
+		warnedSkillMask |= config.warnForStrength() ? AttackStyle.skillMask(Skill.STRENGTH) : 0;
+		warnedSkillMask |= config.warnForDefence() ? AttackStyle.skillMask(Skill.DEFENCE) : 0;
+		warnedSkillMask |= config.warnForRanged() ? AttackStyle.skillMask(Skill.RANGED) : 0;
+		warnedSkillMask |= config.warnForMagic() ? AttackStyle.skillMask(Skill.MAGIC) : 0;
+
+		Color color = config.flashColor();
+		Color flashColor = new Color(color.getRed(), color.getGreen(), color.getBlue(),
+			config.flashTransparency().getTransparency());
+
+		// The preset intervals are the time between toggles, on and off for the same time
+		int flashPeriodMillis = config.flashInterval() == FlashInterval.CUSTOM
+			? Math.max(2, config.customFlashPeriod())
+			: config.flashInterval().getInterval() * 2;
+
+		return new StyleAlertSettings(
+			config.enableFlashing(),
+			warnedSkillMask,
+			AlertRules.parse(config.alertRules()),
+			config.removeWarnedStyles(),
+			flashColor,
+			config.flashStyle(),
+			config.flashAnimation(),
+			config.flashAnimation() == FlashAnimation.PULSE ? new PulseTable(flashColor) : null,
+			flashPeriodMillis,
+			Math.max(1, Math.min(flashPeriodMillis - 1, flashPeriodMillis * config.flashDutyCycle() / 100)),
+			config.selectedSound(),
+			config.customSoundFile().trim(),
+			config.soundVolume().getVolume(),
+			config.showLatencyOverlay(),
+			config.recordSessions(),
+			config.xpLeakAlert(),
+			config.autocastAlert(),
+			config.autoRetaliateAlert(),
+			config.specialAttackAlert(),
+			config.profileKeybind());
+	}
+}
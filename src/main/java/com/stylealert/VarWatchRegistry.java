@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.Arrays;
+import net.runelite.api.events.VarbitChanged;
+
+/**
+ * Handlers of the watched varbits and varps, in arrays indexed by their id.
+ * A change of a var nobody watches is rejected with a single array read, however many vars are watched.
+ * <p>
+ * Client thread only.
+ */
+final class VarWatchRegistry
+{
+	interface Handler
+	{
+		void varChanged(int value);
+	}
+
+	private Handler[] varbitHandlers = new Handler[0];
+	private Handler[] varpHandlers = new Handler[0];
+
+	void watchVarbit(int varbit, Handler handler)
+	{
+		varbitHandlers = watch(varbitHandlers, varbit, handler);
+	}
+
+	void watchVarp(int varp, Handler handler)
+	{
+		varpHandlers = watch(varpHandlers, varp, handler);
+	}
+
+	void dispatch(VarbitChanged event)
+	{
+		// Varbit changes also carry the varp holding them, which is only dispatched on its own event
+		int id = event.getVarbitId();
+		Handler[] handlers = varbitHandlers;
+		if (id == -1)
+		{
+			id = event.getVarpId();
+			handlers = varpHandlers;
+		}
+
+		if (id < 0 || id >= handlers.length)
+		{
+			return;
+		}
+
+		Handler handler = handlers[id];
+		if (handler != null)
+		{
+			handler.varChanged(event.getValue());
+		}
+	}
+
+	private static Handler[] watch(Handler[] handlers, int id, Handler handler)
+	{
+		if (id < 0)
+		{
+			throw new IllegalArgumentException("Invalid var id: " + id);
+		}
+
+		if (id >= handlers.length)
+		{
+			handlers = Arrays.copyOf(handlers, id + 1);
+		}
+		else if (handlers[id] != null)
+		{
+			throw new IllegalStateException("Var " + id + " is already watched");
+		}
+
+		handlers[id] = handler;
+		return handlers;
+	}
+}
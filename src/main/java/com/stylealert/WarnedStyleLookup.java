@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import lombok.Getter;
+
+/**
+ * Answers whether a combat option selects a warned skill with a single array read.
+ * Indexed by weapon type, attack style varp value and defensive casting mode, and built
+ * for one warned skill mask, set of alert rules and game revision.
+ * <p>
+ * Also keeps a bit per combat option of each weapon type, for the combat tab buttons to hide. Options 0-3 are the
+ * style buttons, 4 is the spells button and 5 the defensive spell button.
+ */
+final class WarnedStyleLookup
+{
+	// The client only uses attack styles 0-4, with 4 split into two by the casting mode
+	private static final int ATTACK_STYLES = 5;
+	private static final int CASTING_MODES = 2;
+	static final int COMBAT_OPTIONS = ATTACK_STYLES + CASTING_MODES - 1;
+
+	@Getter
+	private final int warnedSkillMask;
+	@Getter
+	private final AlertRules alertRules;
+	@Getter
+	private final int revision;
+	private final boolean[] warned;
+	// Indexed by weapon type, bit per combat option the weapon has
+	private final int[] combatOptions;
+	// Indexed by weapon type, bit per combat option selecting a warned style
+	private final int[] warnedCombatOptions;
+
+	private WarnedStyleLookup(int warnedSkillMask, AlertRules alertRules, int revision, boolean[] warned,
+		int[] combatOptions, int[] warnedCombatOptions)
+	{
+		this.warnedSkillMask = warnedSkillMask;
+		this.alertRules = alertRules;
+		this.revision = revision;
+		this.warned = warned;
+		this.combatOptions = combatOptions;
+		this.warnedCombatOptions = warnedCombatOptions;
+	}
+
+	// Must be called on the client thread, as it resolves every weapon type
+	static WarnedStyleLookup build(WeaponStyleTable weaponStyleTable, int warnedSkillMask, AlertRules alertRules,
+		int revision)
+	{
+		int weaponTypes = weaponStyleTable.getWeaponTypeCount();
+		boolean[] warned = new boolean[weaponTypes * ATTACK_STYLES * CASTING_MODES];
+		int[] combatOptions = new int[weaponTypes];
+		int[] warnedCombatOptions = new int[weaponTypes];
+		for (int weaponType = 0; weaponType < weaponTypes; weaponType++)
+		{
+			AttackStyle[] attackStyles = weaponStyleTable.getStyles(weaponType);
+			for (int attackStyleIndex = 0; attackStyleIndex < ATTACK_STYLES; attackStyleIndex++)
+			{
+				for (int castingMode = 0; castingMode < CASTING_MODES; castingMode++)
+				{
+					AttackStyle attackStyle = WeaponStyleTable.getStyle(attackStyles, attackStyleIndex, castingMode);
+					if (attackStyle != null)
+					{
+						warned[index(weaponType, attackStyleIndex, castingMode)] = alertRules.isWarned(
+							(attackStyle.getSkillMask() & warnedSkillMask) != 0, weaponType, attackStyle);
+					}
+				}
+			}
+
+			for (int combatOption = 0; combatOption < COMBAT_OPTIONS; combatOption++)
+			{
+				int attackStyleIndex = Math.min(combatOption, ATTACK_STYLES - 1);
+				int castingMode = combatOption - attackStyleIndex;
+				AttackStyle attackStyle = WeaponStyleTable.getStyle(attackStyles, attackStyleIndex, castingMode);
+				// Empty buttons are left alone
+				if (attackStyle != null && attackStyle != AttackStyle.OTHER)
+				{
+					combatOptions[weaponType] |= 1 << combatOption;
+					if (warned[index(weaponType, attackStyleIndex, castingMode)])
+					{
+						warnedCombatOptions[weaponType] |= 1 << combatOption;
+					}
+				}
+			}
+		}
+		return new WarnedStyleLookup(warnedSkillMask, alertRules, revision, warned, combatOptions, warnedCombatOptions);
+	}
+
+	boolean isWarned(int weaponType, int attackStyleIndex, int castingMode)
+	{
+		if (weaponType < 0 || attackStyleIndex < 0 || attackStyleIndex >= ATTACK_STYLES
+			|| castingMode < 0 || castingMode >= CASTING_MODES)
+		{
+			return false;
+		}
+
+		int index = index(weaponType, attackStyleIndex, castingMode);
+		return index < warned.length && warned[index];
+	}
+
+	int getCombatOptions(int weaponType)
+	{
+		return weaponType >= 0 && weaponType < combatOptions.length ? combatOptions[weaponType] : 0;
+	}
+
+	int getWarnedCombatOptions(int weaponType)
+	{
+		return weaponType >= 0 && weaponType < warnedCombatOptions.length ? warnedCombatOptions[weaponType] : 0;
+	}
+
+	private static int index(int weaponType, int attackStyleIndex, int castingMode)
+	{
+		return (weaponType * ATTACK_STYLES + attackStyleIndex) * CASTING_MODES + castingMode;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the resolved {@link WeaponStyleTable} of every weapon type on disk, so the styles are known at startup
+ * without going through the client's enums and structs.
+ * <p>
+ * The file holds the game revision it was resolved against, the names of the attack styles it was written with, the
+ * weapon type count, and for every weapon type the number of combat options followed by a byte per option with the
+ * index of its style in those names + 1, or 0 for none. Styles are looked up by name, so reordering {@link AttackStyle}
+ * never decodes an old file into the wrong styles, and a file naming a style that no longer exists is resolved again.
+ * It is written on the injected executor.
+ */
+@Slf4j
+@Singleton
+class WeaponStyleCache
+{
+	static final File WEAPON_STYLES_FILE = new File(StyleAlertPlugin.STYLE_ALERT_DIR, "weapon-styles.bin");
+
+	private static final int MAGIC = 0x53415753;
+	private static final int VERSION = 2;
+
+	private static final AttackStyle[] STYLES = AttackStyle.values();
+
+	private final ScheduledExecutorService executor;
+	private final File file;
+
+	@Inject
+	WeaponStyleCache(ScheduledExecutorService executor)
+	{
+		this(executor, WEAPON_STYLES_FILE);
+	}
+
+	WeaponStyleCache(ScheduledExecutorService executor, File file)
+	{
+		this.executor = executor;
+		this.file = file;
+	}
+
+	// Returns the styles of every weapon type, or null if the file is missing or was written for another revision
+	@Nullable
+	AttackStyle[][] load(int revision)
+	{
+		try
+		{
+			// Read to the heap rather than mapped, a mapping would keep the file from being replaced on Windows
+			// until it is collected, and the file is only a few hundred bytes
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != revision)
+			{
+				return null;
+			}
+
+			AttackStyle[] fileStyles = new AttackStyle[checkCount(buffer, buffer.get() & 0xFF)];
+			for (int i = 0; i < fileStyles.length; i++)
+			{
+				byte[] name = new byte[checkCount(buffer, buffer.get() & 0xFF)];
+				buffer.get(name);
+				fileStyles[i] = findStyle(new String(name, StandardCharsets.US_ASCII));
+				if (fileStyles[i] == null)
+				{
+					log.debug("Weapon styles in {} name an unknown attack style, resolving them again", file);
+					return null;
+				}
+			}
+
+			AttackStyle[][] styles = new AttackStyle[checkCount(buffer, buffer.getInt())][];
+			for (int weaponType = 0; weaponType < styles.length; weaponType++)
+			{
+				AttackStyle[] attackStyles = new AttackStyle[checkCount(buffer, buffer.get() & 0xFF)];
+				for (int i = 0; i < attackStyles.length; i++)
+				{
+					int style = buffer.get() & 0xFF;
+					attackStyles[i] = style == 0 ? null : fileStyles[style - 1];
+				}
+				styles[weaponType] = attackStyles;
+			}
+			return styles;
+		}
+		catch (NoSuchFileException e)
+		{
+			return null;
+		}
+		catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e)
+		{
+			log.warn("Unable to read weapon styles from {}", file, e);
+			return null;
+		}
+	}
+
+	// Writes the styles in the background, replacing the file at once so a crash never leaves it half written
+	void save(int revision, AttackStyle[][] styles)
+	{
+		executor.execute(() ->
+		{
+			int size = 17;
+			for (AttackStyle style : STYLES)
+			{
+				size += 1 + style.name().length();
+			}
+			for (AttackStyle[] attackStyles : styles)
+			{
+				size += 1 + attackStyles.length;
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate(size);
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(revision);
+			buffer.put((byte) STYLES.length);
+			for (AttackStyle style : STYLES)
+			{
+				buffer.put((byte) style.name().length());
+				buffer.put(style.name().getBytes(StandardCharsets.US_ASCII));
+			}
+			buffer.putInt(styles.length);
+			for (AttackStyle[] attackStyles : styles)
+			{
+				buffer.put((byte) attackStyles.length);
+				for (AttackStyle attackStyle : attackStyles)
+				{
+					buffer.put((byte) (attackStyle == null ? 0 : attackStyle.ordinal() + 1));
+				}
+			}
+
+			Path path = file.toPath();
+			Path temp = null;
+			try
+			{
+				Files.createDirectories(path.getParent());
+				temp = Files.createTempFile(path.getParent(), file.getName(), ".tmp");
+				Files.write(temp, buffer.array());
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				temp = null;
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to write weapon styles to {}", file, e);
+			}
+			finally
+			{
+				deleteTemp(temp);
+			}
+		});
+	}
+
+	// Every counted item takes at least a byte, so a corrupt count is rejected before it is allocated
+	private static int checkCount(ByteBuffer buffer, int count) throws IOException
+	{
+		if (count < 0 || count > buffer.remaining())
+		{
+			throw new IOException("Invalid count " + count + " with " + buffer.remaining() + " bytes left");
+		}
+		return count;
+	}
+
+	@Nullable
+	private static AttackStyle findStyle(String name)
+	{
+		for (AttackStyle style : STYLES)
+		{
+			if (style.name().equals(name))
+			{
+				return style;
+			}
+		}
+		return null;
+	}
+
+	private static void deleteTemp(@Nullable Path temp)
+	{
+		if (temp == null)
+		{
+			return;
+		}
+
+		try
+		{
+			Files.deleteIfExists(temp);
+		}
+		catch (IOException e)
+		{
+			log.debug("Unable to delete {}", temp, e);
+		}
+	}
+}
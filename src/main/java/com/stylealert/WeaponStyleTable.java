@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * Copyright (c) 2017, honeyhoney <https://github.com/honeyhoney>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.EnumID;
+import net.runelite.api.ParamID;
+import net.runelite.api.StructComposition;
+import static com.stylealert.AttackStyle.ACCURATE;
+import static com.stylealert.AttackStyle.AGGRESSIVE;
+import static com.stylealert.AttackStyle.CASTING;
+import static com.stylealert.AttackStyle.DEFENSIVE;
+import static com.stylealert.AttackStyle.DEFENSIVE_CASTING;
+import static com.stylealert.AttackStyle.OTHER;
+
+/**
+ * Resolves weapon types to the attack styles of their combat options and memoizes the result,
+ * so a gear swap only costs an array read once a weapon type has been seen. The table can also be preloaded with the
+ * styles of every weapon type from {@link WeaponStyleCache}.
+ * <p>
+ * Must only be used from the client thread. The returned arrays are shared and must not be modified.
+ */
+@Singleton
+class WeaponStyleTable
+{
+	private static final int BLUE_MOON_SPEAR = 22;
+	private static final int PARTISAN = 30;
+
+	private static final AttackStyle[] NO_STYLES = new AttackStyle[0];
+	private static final AttackStyle[] BLUE_MOON_SPEAR_STYLES = {
+		ACCURATE, AGGRESSIVE, null, DEFENSIVE, CASTING, DEFENSIVE_CASTING
+	};
+	private static final AttackStyle[] PARTISAN_STYLES = {
+		ACCURATE, AGGRESSIVE, AGGRESSIVE, DEFENSIVE
+	};
+
+	private final Client client;
+
+	// Indexed by weapon type, null until the weapon type is first resolved
+	private AttackStyle[][] styles = new AttackStyle[0][];
+	// Game revision the cached styles were resolved against
+	private int revision = -1;
+	// -1 until computed for the revision
+	private int weaponTypeCount = -1;
+
+	@Inject
+	WeaponStyleTable(Client client)
+	{
+		this.client = client;
+	}
+
+	AttackStyle[] getStyles(int weaponType)
+	{
+		if (weaponType < 0)
+		{
+			return NO_STYLES;
+		}
+
+		checkRevision();
+
+		if (weaponType >= styles.length)
+		{
+			styles = Arrays.copyOf(styles, weaponType + 1);
+		}
+
+		AttackStyle[] resolved = styles[weaponType];
+		if (resolved == null)
+		{
+			resolved = resolve(weaponType);
+			styles[weaponType] = resolved;
+		}
+		return resolved;
+	}
+
+	// Upper bound of the weapon types that have combat options, for building per weapon type tables
+	int getWeaponTypeCount()
+	{
+		checkRevision();
+
+		if (weaponTypeCount == -1)
+		{
+			int count = PARTISAN + 1;
+			for (int weaponType : client.getEnum(EnumID.WEAPON_STYLES).getKeys())
+			{
+				count = Math.max(count, weaponType + 1);
+			}
+			weaponTypeCount = count;
+		}
+		return weaponTypeCount;
+	}
+
+	// Resolves the styles of every weapon type, indexed by weapon type
+	AttackStyle[][] resolveAll()
+	{
+		int count = getWeaponTypeCount();
+		for (int weaponType = 0; weaponType < count; weaponType++)
+		{
+			getStyles(weaponType);
+		}
+		return Arrays.copyOf(styles, count);
+	}
+
+	// Uses the styles of every weapon type resolved against the revision, unless the game is on another revision
+	void preload(int revision, AttackStyle[][] styles)
+	{
+		if (revision != client.getRevision())
+		{
+			return;
+		}
+
+		this.styles = styles.clone();
+		this.revision = revision;
+		weaponTypeCount = styles.length;
+	}
+
+	int getRevision()
+	{
+		return revision;
+	}
+
+	// Returns null when the attack style index is not one of the weapon's combat options
+	@Nullable
+	static AttackStyle getStyle(AttackStyle[] attackStyles, int attackStyleIndex, int castingMode)
+	{
+		if (attackStyleIndex < 0 || attackStyleIndex >= attackStyles.length)
+		{
+			return null;
+		}
+
+		// from script4525
+		// Even though the client has 5 attack styles for Staffs, only attack styles 0-4 are used, with an additional
+		// casting mode set for defensive casting
+		if (attackStyleIndex == 4)
+		{
+			attackStyleIndex += castingMode;
+		}
+
+		AttackStyle attackStyle = attackStyleIndex < attackStyles.length ? attackStyles[attackStyleIndex] : null;
+		return attackStyle != null ? attackStyle : OTHER;
+	}
+
+	void clear()
+	{
+		styles = new AttackStyle[0][];
+		revision = -1;
+		weaponTypeCount = -1;
+	}
+
+	private void checkRevision()
+	{
+		// The enums and structs come from the game cache, which only changes with the revision
+		int currentRevision = client.getRevision();
+		if (currentRevision != revision)
+		{
+			clear();
+			revision = currentRevision;
+		}
+	}
+
+	private AttackStyle[] resolve(int weaponType)
+	{
+		// from script4525
+		int weaponStyleEnum = client.getEnum(EnumID.WEAPON_STYLES).getIntValue(weaponType);
+		if (weaponStyleEnum == -1)
+		{
+			switch (weaponType)
+			{
+				case BLUE_MOON_SPEAR:
+					return BLUE_MOON_SPEAR_STYLES;
+				case PARTISAN:
+					return PARTISAN_STYLES;
+				default:
+					return NO_STYLES;
+			}
+		}
+		int[] weaponStyleStructs = client.getEnum(weaponStyleEnum).getIntVals();
+
+		AttackStyle[] styles = new AttackStyle[weaponStyleStructs.length];
+		int i = 0;
+		for (int style : weaponStyleStructs)
+		{
+			StructComposition attackStyleStruct = client.getStructComposition(style);
+			String attackStyleName = attackStyleStruct.getStringValue(ParamID.ATTACK_STYLE_NAME);
+
+			AttackStyle attackStyle = AttackStyle.valueOf(attackStyleName.toUpperCase());
+			if (attackStyle == OTHER)
+			{
+				// "Other" is used for no style
+				++i;
+				continue;
+			}
+
+			// "Defensive" is used for Defensive and also Defensive casting
+			if (i == 5 && attackStyle == DEFENSIVE)
+			{
+				attackStyle = DEFENSIVE_CASTING;
+			}
+
+			styles[i++] = attackStyle;
+		}
+		return styles;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.Arrays;
+import net.runelite.api.Skill;
+
+/**
+ * Detects XP gained in a warned skill from the stat changes of the local player.
+ * The last XP of each skill is kept in an array indexed by {@link Skill#ordinal()}, -1 until the skill is first seen,
+ * so the check on every stat change is a couple of array reads without allocating.
+ */
+final class XpLeakGuard
+{
+	private static final int UNKNOWN = -1;
+
+	private final int[] lastXp = new int[Skill.values().length];
+
+	XpLeakGuard()
+	{
+		reset();
+	}
+
+	// Forget the XP of the previous account, the first stat change of each skill after this never alerts
+	void reset()
+	{
+		Arrays.fill(lastXp, UNKNOWN);
+	}
+
+	// Seed with the XP of every skill, indexed by Skill ordinal as returned by Client.getSkillExperiences().
+	// The client reports 0 until the stats arrive after logging in, so 0 is treated as not known yet
+	void prime(int[] skillExperiences)
+	{
+		for (int i = 0; i < Math.min(skillExperiences.length, lastXp.length); i++)
+		{
+			lastXp[i] = skillExperiences[i] > 0 ? skillExperiences[i] : UNKNOWN;
+		}
+	}
+
+	// Skills the XP of which leaks with the selected style, after the alert rules.
+	// A style the rules allow may train its warned skills, and one the rules warn for leaks into all of its skills
+	static int leakSkillMask(int warnedSkillMask, AttackStyle attackStyle, boolean warned)
+	{
+		if (attackStyle == null)
+		{
+			return warnedSkillMask;
+		}
+		return warned ? warnedSkillMask | attackStyle.getSkillMask() : warnedSkillMask & ~attackStyle.getSkillMask();
+	}
+
+	// Returns whether XP was gained in one of the skills of the leak skill mask
+	boolean xpChanged(Skill skill, int xp, int leakSkillMask)
+	{
+		int ordinal = skill.ordinal();
+		int last = lastXp[ordinal];
+		lastXp[ordinal] = xp;
+		// Non short-circuit, the gain is rare and each operand is a single compare
+		return last != UNKNOWN & xp > last & ((leakSkillMask >>> ordinal) & 1) != 0;
+	}
+}
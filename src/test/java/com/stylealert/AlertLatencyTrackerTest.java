@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AlertLatencyTrackerTest
+{
+	private static final long MILLIS = 1_000_000;
+
+	private final AlertLatencyTracker tracker = new AlertLatencyTracker();
+
+	@Test
+	public void testVarbitToFrame() throws InterruptedException
+	{
+		tracker.varbitChanged();
+		// Only the first change before the style is evaluated counts
+		Thread.sleep(5);
+		tracker.varbitChanged();
+		tracker.flashStarted(System.nanoTime());
+		tracker.styleEvaluated();
+		assertCounts(1, 0, 0);
+		assertTrue(tracker.getDispatch().getMax() >= 5 * MILLIS);
+
+		// Only the first frame after the flash started counts
+		tracker.flashRendered();
+		tracker.flashRendered();
+		assertCounts(1, 1, 1);
+		assertTrue(tracker.getTotal().getMax() >= tracker.getDispatch().getMax());
+	}
+
+	@Test
+	public void testFlashWithoutVarbit()
+	{
+		// Nothing is pending before a flash starts
+		tracker.flashRendered();
+		assertCounts(0, 0, 0);
+
+		// A flash started by a settings change has no varbit to measure from
+		tracker.varbitChanged();
+		tracker.styleEvaluated();
+		tracker.flashStarted(System.nanoTime());
+		tracker.flashRendered();
+		assertCounts(0, 1, 0);
+	}
+
+	@Test
+	public void testReset()
+	{
+		tracker.varbitChanged();
+		tracker.flashStarted(System.nanoTime());
+		tracker.reset();
+
+		tracker.flashRendered();
+		assertCounts(0, 0, 0);
+		assertEquals("p50 0.00ms p99 0.00ms max 0.00ms (n=0)", AlertLatencyTracker.summary(tracker.getTotal()));
+	}
+
+	private void assertCounts(long dispatch, long frame, long total)
+	{
+		assertEquals(dispatch, tracker.getDispatch().getCount());
+		assertEquals(frame, tracker.getFrame().getCount());
+		assertEquals(total, tracker.getTotal().getCount());
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import org.junit.Test;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AlertRulesTest
+{
+	@Test
+	public void testParse()
+	{
+		assertSame(AlertRules.NONE, AlertRules.parse(""));
+		assertSame(AlertRules.NONE, AlertRules.parse("# only a comment\n\n  "));
+
+		// Invalid rules are skipped
+		assertSame(AlertRules.NONE, AlertRules.parse("warn\nblock Defence\nwarn Nonsense\n" +
+			"allow Defence on staff\nallow Defence on -1"));
+
+		AlertRules rules = AlertRules.parse("warn Nonsense\r\nwarn Defensive # not Controlled\n");
+		assertTrue(rules.isWarned(false, 0, AttackStyle.DEFENSIVE));
+		assertFalse(rules.isWarned(false, 0, AttackStyle.CONTROLLED));
+		assertTrue(rules.isWarned(true, 0, AttackStyle.ACCURATE));
+	}
+
+	@Test
+	public void testStylesAndSkills()
+	{
+		// A skill matches every style training it
+		AlertRules rules = AlertRules.parse("allow Defence");
+		assertFalse(rules.isWarned(true, 0, AttackStyle.DEFENSIVE));
+		assertFalse(rules.isWarned(true, 0, AttackStyle.CONTROLLED));
+		assertFalse(rules.isWarned(true, 0, AttackStyle.LONGRANGE));
+		assertFalse(rules.isWarned(true, 0, AttackStyle.DEFENSIVE_CASTING));
+		assertTrue(rules.isWarned(true, 0, AttackStyle.ACCURATE));
+		assertTrue(rules.isWarned(true, 0, AttackStyle.CASTING));
+
+		// A style by its name or its constant, in any case
+		rules = AlertRules.parse("WARN defensive casting\nwarn LONGRANGE");
+		assertTrue(rules.isWarned(false, 0, AttackStyle.DEFENSIVE_CASTING));
+		assertTrue(rules.isWarned(false, 0, AttackStyle.LONGRANGE));
+		assertFalse(rules.isWarned(false, 0, AttackStyle.CASTING));
+		assertTrue(AlertRules.parse("warn Defensive_Casting").isWarned(false, 0, AttackStyle.DEFENSIVE_CASTING));
+	}
+
+	@Test
+	public void testWeaponTypes()
+	{
+		AlertRules rules = AlertRules.parse("warn Defence on 18, 20");
+		assertTrue(rules.isWarned(false, 18, AttackStyle.DEFENSIVE));
+		assertTrue(rules.isWarned(false, 20, AttackStyle.CONTROLLED));
+		assertFalse(rules.isWarned(false, 9, AttackStyle.DEFENSIVE));
+		assertFalse(rules.isWarned(false, 1000, AttackStyle.DEFENSIVE));
+	}
+
+	@Test
+	public void testLaterRulesOverride()
+	{
+		AlertRules rules = AlertRules.parse("warn Controlled\nallow Controlled on 20");
+		assertFalse(rules.isWarned(false, 20, AttackStyle.CONTROLLED));
+		assertTrue(rules.isWarned(false, 9, AttackStyle.CONTROLLED));
+
+		rules = AlertRules.parse("allow Controlled on 20\nwarn Controlled");
+		assertTrue(rules.isWarned(false, 20, AttackStyle.CONTROLLED));
+	}
+}
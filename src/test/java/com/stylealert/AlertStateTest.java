@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AlertStateTest
+{
+	// The largest flash start that fits in the state
+	private static final long MAX_FLASH_START = (1L << 42) - 1;
+
+	@Test
+	public void testPacking()
+	{
+		assertNull(AlertState.getAttackStyle(AlertState.NONE));
+		assertFalse(AlertState.isWarned(AlertState.NONE));
+		assertEquals(0, AlertState.getGeneration(AlertState.NONE));
+		assertEquals(0, AlertState.getFlashStartMillis(AlertState.NONE));
+
+		for (AttackStyle attackStyle : AttackStyle.values())
+		{
+			long state = AlertState.next(AlertState.NONE, attackStyle, true, MAX_FLASH_START);
+			assertSame(attackStyle, AlertState.getAttackStyle(state));
+			assertTrue(AlertState.isWarned(state));
+			assertEquals(1, AlertState.getGeneration(state));
+			assertEquals(MAX_FLASH_START, AlertState.getFlashStartMillis(state));
+
+			long withoutFlashStart = AlertState.withoutFlashStart(state);
+			assertSame(attackStyle, AlertState.getAttackStyle(withoutFlashStart));
+			assertTrue(AlertState.isWarned(withoutFlashStart));
+			assertEquals(1, AlertState.getGeneration(withoutFlashStart));
+			assertEquals(0, AlertState.getFlashStartMillis(withoutFlashStart));
+		}
+	}
+
+	@Test
+	public void testGeneration()
+	{
+		long state = AlertState.next(AlertState.NONE, AttackStyle.ACCURATE, false, 0);
+		assertEquals(1, AlertState.getGeneration(state));
+
+		// Only bumped when something changes
+		assertEquals(state, AlertState.next(state, AttackStyle.ACCURATE, false, 0));
+		state = AlertState.next(state, AttackStyle.ACCURATE, true, 0);
+		assertEquals(2, AlertState.getGeneration(state));
+		state = AlertState.next(state, AttackStyle.ACCURATE, true, 1000);
+		assertEquals(3, AlertState.getGeneration(state));
+		state = AlertState.next(state, null, true, 1000);
+		assertEquals(4, AlertState.getGeneration(state));
+		assertNull(AlertState.getAttackStyle(state));
+
+		// Wraps around without touching the other fields
+		for (int i = 0; i < 1 << 16; i++)
+		{
+			state = AlertState.next(state, AttackStyle.CASTING, i % 2 == 0, MAX_FLASH_START);
+		}
+		assertEquals(4, AlertState.getGeneration(state));
+		assertSame(AttackStyle.CASTING, AlertState.getAttackStyle(state));
+		assertFalse(AlertState.isWarned(state));
+		assertEquals(MAX_FLASH_START, AlertState.getFlashStartMillis(state));
+	}
+}
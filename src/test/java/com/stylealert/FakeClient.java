@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+import lombok.Getter;
+import lombok.Setter;
+import net.runelite.api.Client;
+import net.runelite.api.EnumComposition;
+import net.runelite.api.EnumID;
+import net.runelite.api.GameState;
+import net.runelite.api.ParamID;
+import net.runelite.api.Skill;
+import net.runelite.api.StructComposition;
+
+/**
+ * Stand-in for the game client backed by plain arrays and synthetic weapon style enums and structs.
+ * Only the methods the plugin uses are implemented, everything else returns the type's default value.
+ */
+class FakeClient implements InvocationHandler
+{
+	// Synthetic ids of the per weapon type style enums and their structs
+	private static final int STYLE_ENUM_BASE = 100_000;
+	private static final int STYLE_STRUCT_BASE = 200_000;
+	private static final int MAX_STYLES = 16;
+
+	// Combat options per weapon type, in the order of the weapon type's style enum
+	static final Map<Integer, AttackStyle[]> WEAPON_STYLES = new HashMap<>();
+
+	static
+	{
+		// Unarmed
+		WEAPON_STYLES.put(0, new AttackStyle[]{AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, AttackStyle.OTHER, AttackStyle.DEFENSIVE});
+		// Axe
+		WEAPON_STYLES.put(1, new AttackStyle[]{AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, AttackStyle.AGGRESSIVE, AttackStyle.DEFENSIVE});
+		// Bow
+		WEAPON_STYLES.put(3, new AttackStyle[]{AttackStyle.RANGING, AttackStyle.RANGING, AttackStyle.OTHER, AttackStyle.LONGRANGE});
+		// Slash sword
+		WEAPON_STYLES.put(9, new AttackStyle[]{AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, AttackStyle.CONTROLLED, AttackStyle.DEFENSIVE});
+		// Staff, the sixth style is resolved to defensive casting
+		WEAPON_STYLES.put(18, new AttackStyle[]{AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, AttackStyle.OTHER, AttackStyle.DEFENSIVE, AttackStyle.CASTING, AttackStyle.DEFENSIVE});
+		// Whip
+		WEAPON_STYLES.put(20, new AttackStyle[]{AttackStyle.ACCURATE, AttackStyle.CONTROLLED, AttackStyle.OTHER, AttackStyle.DEFENSIVE});
+	}
+
+	@Getter
+	private final Client client = (Client) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Client.class}, this);
+
+	private final int[] varps = new int[4096];
+	private final int[] varbits = new int[16384];
+	private final int[] skillExperiences = new int[Skill.values().length];
+	private final Map<Integer, EnumComposition> enums = new HashMap<>();
+	private final Map<Integer, StructComposition> structs = new HashMap<>();
+
+	@Setter
+	private GameState gameState = GameState.LOGGED_IN;
+	@Setter
+	private int revision = 1;
+	@Setter
+	private int canvasWidth = 765;
+	@Setter
+	private int canvasHeight = 503;
+
+	FakeClient()
+	{
+		int[] weaponTypes = WEAPON_STYLES.keySet().stream().mapToInt(Integer::intValue).toArray();
+		enums.put(EnumID.WEAPON_STYLES, enumComposition(weaponTypes, key -> WEAPON_STYLES.containsKey(key) ? STYLE_ENUM_BASE + key : -1, null));
+
+		WEAPON_STYLES.forEach((weaponType, styles) ->
+		{
+			int[] structIds = new int[styles.length];
+			for (int i = 0; i < styles.length; i++)
+			{
+				String name = styles[i].name();
+				structIds[i] = STYLE_STRUCT_BASE + weaponType * MAX_STYLES + i;
+				structs.put(structIds[i], (StructComposition) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{StructComposition.class},
+					(proxy, method, args) -> method.getName().equals("getStringValue") && (int) args[0] == ParamID.ATTACK_STYLE_NAME
+						? name : defaultValue(method.getReturnType())));
+			}
+			enums.put(STYLE_ENUM_BASE + weaponType, enumComposition(null, key -> -1, structIds));
+		});
+	}
+
+	void setSkillExperience(Skill skill, int xp)
+	{
+		skillExperiences[skill.ordinal()] = xp;
+	}
+
+	void setVarp(int varp, int value)
+	{
+		varps[varp] = value;
+	}
+
+	void setVarbit(int varbit, int value)
+	{
+		varbits[varbit] = value;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args)
+	{
+		switch (method.getName())
+		{
+			case "getVarpValue":
+				return varps[(int) args[0]];
+			case "getVarbitValue":
+				return varbits[(int) args[0]];
+			case "getSkillExperiences":
+				return skillExperiences;
+			case "getGameState":
+				return gameState;
+			case "getEnum":
+				return enums.get((Integer) args[0]);
+			case "getStructComposition":
+				return structs.get((Integer) args[0]);
+			case "getRevision":
+				return revision;
+			case "getCanvasWidth":
+				return canvasWidth;
+			case "getCanvasHeight":
+				return canvasHeight;
+			case "isClientThread":
+				return true;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "FakeClient";
+			default:
+				return defaultValue(method.getReturnType());
+		}
+	}
+
+	private EnumComposition enumComposition(int[] keys, IntUnaryOperator values, int[] intVals)
+	{
+		return (EnumComposition) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{EnumComposition.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getKeys":
+					return keys;
+				case "getIntValue":
+					return values.applyAsInt((int) args[0]);
+				case "getIntVals":
+					return intVals;
+				default:
+					return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	static Object defaultValue(Class<?> type)
+	{
+		if (type == boolean.class)
+		{
+			return false;
+		}
+		if (type == int.class)
+		{
+			return 0;
+		}
+		if (type == long.class)
+		{
+			return 0L;
+		}
+		if (type == float.class)
+		{
+			return 0f;
+		}
+		if (type == double.class)
+		{
+			return 0d;
+		}
+		if (type == short.class)
+		{
+			return (short) 0;
+		}
+		if (type == byte.class)
+		{
+			return (byte) 0;
+		}
+		if (type == char.class)
+		{
+			return (char) 0;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.client.config.ConfigItem;
+
+/**
+ * {@link StyleAlertConfig} backed by a map of config key to value, falling back to the defaults of the interface.
+ */
+final class FakeConfig
+{
+	private final Map<String, Object> values = new HashMap<>();
+	private final StyleAlertConfig config = (StyleAlertConfig) Proxy.newProxyInstance(getClass().getClassLoader(),
+		new Class<?>[]{StyleAlertConfig.class}, (proxy, method, args) ->
+		{
+			ConfigItem item = method.getAnnotation(ConfigItem.class);
+			if (item == null)
+			{
+				return FakeClient.defaultValue(method.getReturnType());
+			}
+
+			Object value = values.get(item.keyName());
+			return value != null ? value : invokeDefault(proxy, method);
+		});
+
+	StyleAlertConfig get()
+	{
+		return config;
+	}
+
+	void set(String key, Object value)
+	{
+		values.put(key, value);
+	}
+
+	private static Object invokeDefault(Object proxy, Method method) throws Throwable
+	{
+		Class<?> declaringClass = method.getDeclaringClass();
+		return MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup())
+			.unreflectSpecial(method, declaringClass)
+			.bindTo(proxy)
+			.invokeWithArguments();
+	}
+}
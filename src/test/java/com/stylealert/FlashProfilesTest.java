@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.Color;
+import net.runelite.api.Skill;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class FlashProfilesTest
+{
+	private static final int ATTACK = AttackStyle.skillMask(Skill.ATTACK);
+	private static final int DEFENCE = AttackStyle.skillMask(Skill.DEFENCE);
+	private static final int RANGED = AttackStyle.skillMask(Skill.RANGED);
+
+	private final FakeConfig config = new FakeConfig();
+
+	@Test
+	public void testParse()
+	{
+		config.set("warnForAttack", true);
+		FlashProfiles profiles = FlashProfiles.parse("# Comments and lines without a name are skipped\n" +
+			"pure: warnForDefensive=true, flashInterval=rapid, flashColor=#0000FF\n" +
+			": warnForMagic=true\n" +
+			"main:\n", config.get());
+
+		assertEquals(2, profiles.size());
+		assertEquals("pure", profiles.getName(0));
+		assertEquals("main", profiles.getName(1));
+		assertEquals(0, profiles.indexOf("PURE"));
+		assertEquals(-1, profiles.indexOf("zerker"));
+
+		// Overridden keys replace the config, the rest comes from it
+		StyleAlertSettings pure = profiles.getSettings(0);
+		assertEquals(ATTACK | DEFENCE, pure.getWarnedSkillMask());
+		assertEquals(500, pure.getFlashPeriodMillis());
+		assertEquals(Color.BLUE.getRGB() & 0xFFFFFF, pure.getFlashColor().getRGB() & 0xFFFFFF);
+
+		StyleAlertSettings main = profiles.getSettings(1);
+		assertEquals(ATTACK, main.getWarnedSkillMask());
+		assertEquals(1000, main.getFlashPeriodMillis());
+	}
+
+	@Test
+	public void testInvalidOverrides()
+	{
+		// Each invalid override is skipped on its own
+		FlashProfiles profiles = FlashProfiles.parse("pure: warnForAttack=yes, noSuchKey=1, flashInterval=never, " +
+			"customFlashPeriod=long, warnForMagic, profiles=main, warnForRanged=true", config.get());
+
+		assertEquals(1, profiles.size());
+		assertEquals(RANGED, profiles.getSettings(0).getWarnedSkillMask());
+		assertEquals(1000, profiles.getSettings(0).getFlashPeriodMillis());
+	}
+
+	@Test
+	public void testNone()
+	{
+		assertSame(FlashProfiles.NONE, FlashProfiles.parse("", config.get()));
+		assertSame(FlashProfiles.NONE, FlashProfiles.parse("no name\n# pure: warnForAttack=true", config.get()));
+		assertEquals(0, FlashProfiles.NONE.size());
+	}
+}
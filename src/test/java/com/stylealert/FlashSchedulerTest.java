@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlashSchedulerTest
+{
+	private final FlashScheduler scheduler = new FlashScheduler();
+
+	@Test
+	public void testDutyCycle()
+	{
+		// On for the first quarter of each period, toggling twice per period
+		scheduler.start(1000);
+		assertFalse(scheduler.update(1099, 400, 100));
+		assertTrue(scheduler.isOn());
+		assertTrue(scheduler.update(1100, 400, 100));
+		assertFalse(scheduler.isOn());
+		assertTrue(scheduler.update(1400, 400, 100));
+		assertTrue(scheduler.isOn());
+
+		// A late frame toggles once, however many toggles it skipped
+		assertTrue(scheduler.update(2150, 400, 100));
+		assertFalse(scheduler.isOn());
+		assertEquals(1150, scheduler.getElapsedMillis());
+	}
+
+	@Test
+	public void testRestart()
+	{
+		// Restarting from the same time keeps the toggles, a new start begins on
+		scheduler.start(1000);
+		assertTrue(scheduler.update(1100, 400, 100));
+		scheduler.start(1000);
+		assertFalse(scheduler.update(1150, 400, 100));
+		assertFalse(scheduler.isOn());
+
+		scheduler.start(2000);
+		assertTrue(scheduler.isOn());
+		assertFalse(scheduler.update(2000, 400, 100));
+		assertTrue(scheduler.isOn());
+
+		// As does starting again after a stop
+		assertTrue(scheduler.update(2100, 400, 100));
+		scheduler.stop();
+		scheduler.start(2000);
+		assertTrue(scheduler.isOn());
+		assertTrue(scheduler.update(2100, 400, 100));
+	}
+
+	@Test
+	public void testFrameBeforeStart()
+	{
+		// The clock can be read before the flash start is published
+		scheduler.start(1000);
+		assertFalse(scheduler.update(900, 400, 100));
+		assertTrue(scheduler.isOn());
+		assertEquals(0, scheduler.getElapsedMillis());
+	}
+}
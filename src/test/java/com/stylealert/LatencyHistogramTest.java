@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest
+{
+	@Test
+	public void testSmallValuesExact()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int nanos = 0; nanos < 16; nanos++)
+		{
+			histogram.record(nanos);
+		}
+
+		assertEquals(16, histogram.getCount());
+		assertEquals(7, histogram.percentile(0.5));
+		assertEquals(15, histogram.percentile(1));
+	}
+
+	@Test
+	public void testBucketBounds()
+	{
+		// A percentile reports the upper bound of its bucket, at most an eighth above the value
+		for (long nanos = 16; nanos > 0 && nanos < Long.MAX_VALUE / 2; nanos = nanos * 3 / 2 + 1)
+		{
+			LatencyHistogram histogram = new LatencyHistogram();
+			histogram.record(nanos);
+			histogram.record(Long.MAX_VALUE / 2);
+
+			long percentile = histogram.percentile(0.5);
+			assertTrue(nanos + " reported as " + percentile, percentile >= nanos && percentile - nanos <= nanos / 8);
+		}
+	}
+
+	@Test
+	public void testPercentiles()
+	{
+		// 1us to 10ms
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 10_000; i++)
+		{
+			histogram.record(i * 1000L);
+		}
+
+		assertWithin(5_000_000, histogram.percentile(0.5));
+		assertWithin(9_900_000, histogram.percentile(0.99));
+		assertEquals(10_000_000, histogram.percentile(1));
+		assertEquals(10_000_000, histogram.getMax());
+	}
+
+	@Test
+	public void testMaxAndReset()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.percentile(0.5));
+
+		// Clock steps backwards count as 0
+		histogram.record(-5);
+		histogram.record(1_000_003);
+		histogram.record(20);
+		assertEquals(3, histogram.getCount());
+		assertEquals(1_000_003, histogram.getMax());
+		assertEquals(0, histogram.percentile(0.01));
+		// Capped to the largest value seen instead of the bucket bound
+		assertEquals(1_000_003, histogram.percentile(1));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.percentile(0.99));
+	}
+
+	private static void assertWithin(long expected, long actual)
+	{
+		assertTrue(expected + " reported as " + actual, actual >= expected && actual - expected <= expected / 8);
+	}
+}
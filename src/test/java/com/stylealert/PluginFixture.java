@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Scopes;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import net.runelite.api.Client;
+import net.runelite.client.Notifier;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatMessageManager;
+import net.runelite.client.input.KeyManager;
+import net.runelite.client.ui.overlay.OverlayManager;
+import org.mockito.MockSettings;
+import org.mockito.Mockito;
+
+/**
+ * Wires a {@link StyleAlertPlugin} and its overlay to a {@link FakeClient}, {@link FakeConfig}
+ * and {@link ImmediateClientThread}, so it can run without a game connection.
+ */
+class PluginFixture
+{
+	final FakeClient client = new FakeClient();
+	final FakeConfig config = new FakeConfig();
+	final ImmediateClientThread clientThread = new ImmediateClientThread();
+	final OverlayManager overlayManager;
+	final Notifier notifier;
+	final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r ->
+	{
+		Thread thread = new Thread(r, "style-alert-test-executor");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// Kept out of the RuneLite directory
+	final File weaponStylesFile;
+	final StyleAlertPlugin plugin;
+	final ScreenFlashOverlay flashOverlay;
+	final AlertSoundPlayer soundPlayer;
+
+	PluginFixture()
+	{
+		this(false);
+	}
+
+	// Stub only mocks do not record their invocations, so they cannot be verified but calling them does not allocate,
+	// which keeps the allocations of the plugin apart in the benchmarks
+	PluginFixture(boolean stubOnly)
+	{
+		MockSettings mockSettings = stubOnly ? Mockito.withSettings().stubOnly() : Mockito.withSettings();
+		overlayManager = Mockito.mock(OverlayManager.class, mockSettings);
+		notifier = Mockito.mock(Notifier.class, mockSettings);
+		KeyManager keyManager = Mockito.mock(KeyManager.class, mockSettings);
+		ChatMessageManager chatMessageManager = Mockito.mock(ChatMessageManager.class, mockSettings);
+
+		try
+		{
+			File directory = Files.createTempDirectory("style-alert").toFile();
+			directory.deleteOnExit();
+			weaponStylesFile = new File(directory, "weapon-styles.bin");
+			weaponStylesFile.deleteOnExit();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+
+		Injector injector = Guice.createInjector(new AbstractModule()
+		{
+			@Override
+			protected void configure()
+			{
+				bind(Client.class).toInstance(client.getClient());
+				bind(ClientThread.class).toInstance(clientThread);
+				bind(StyleAlertConfig.class).toInstance(config.get());
+				bind(OverlayManager.class).toInstance(overlayManager);
+				bind(Notifier.class).toInstance(notifier);
+				bind(KeyManager.class).toInstance(keyManager);
+				bind(ChatMessageManager.class).toInstance(chatMessageManager);
+				bind(ScheduledExecutorService.class).toInstance(executor);
+				bind(WeaponStyleCache.class).toInstance(new WeaponStyleCache(executor, weaponStylesFile));
+				bind(StyleAlertPlugin.class).in(Scopes.SINGLETON);
+				bind(ScreenFlashOverlay.class).in(Scopes.SINGLETON);
+			}
+		});
+
+		plugin = injector.getInstance(StyleAlertPlugin.class);
+		flashOverlay = injector.getInstance(ScreenFlashOverlay.class);
+		soundPlayer = injector.getInstance(AlertSoundPlayer.class);
+	}
+}
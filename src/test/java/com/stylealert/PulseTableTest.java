@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.Color;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class PulseTableTest
+{
+	@Test
+	public void testStep()
+	{
+		assertEquals(0, PulseTable.step(0, 1000));
+		assertEquals(16, PulseTable.step(250, 1000));
+		assertEquals(32, PulseTable.step(500, 1000));
+		assertEquals(63, PulseTable.step(999, 1000));
+
+		// Every period repeats the cycle
+		assertEquals(0, PulseTable.step(1000, 1000));
+		assertEquals(16, PulseTable.step(2250, 1000));
+	}
+
+	@Test
+	public void testColors()
+	{
+		// Eases from the flash color to transparent half way through the cycle
+		PulseTable table = new PulseTable(new Color(255, 0, 0, 200));
+		assertEquals(new Color(255, 0, 0, 200), table.getColor(0));
+		assertEquals(new Color(255, 0, 0, 100), table.getColor(16));
+		assertEquals(new Color(255, 0, 0, 0), table.getColor(32));
+		assertEquals(new Color(255, 0, 0, 100), table.getColor(48));
+
+		assertEquals(1f, table.getComposite(0).getAlpha(), 0);
+		assertEquals(0.5f, table.getComposite(16).getAlpha(), 1e-6);
+		assertEquals(0f, table.getComposite(32).getAlpha(), 0);
+	}
+}
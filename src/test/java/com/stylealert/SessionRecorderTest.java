@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SessionRecorderTest
+{
+	private static final int WEAPON_TYPE = 9;
+	private static final long ACCURATE = AlertState.next(AlertState.NONE, AttackStyle.ACCURATE, false, 0);
+	private static final long DEFENSIVE = AlertState.next(ACCURATE, AttackStyle.DEFENSIVE, true, 100);
+
+	// Holds the executor, so the ring is only drained when a test drains it
+	private final CountDownLatch executorBlocked = new CountDownLatch(1);
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r ->
+	{
+		Thread thread = new Thread(r, "session-recorder-test");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private long nowMillis = 1_000_000;
+	private File logFile;
+	private SessionRecorder recorder;
+
+	@Before
+	public void before() throws Exception
+	{
+		executor.execute(() ->
+		{
+			try
+			{
+				executorBlocked.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		File directory = Files.createTempDirectory("style-alert").toFile();
+		directory.deleteOnExit();
+		logFile = new File(directory, "sessions.bin");
+		logFile.deleteOnExit();
+		recorder = new SessionRecorder(executor, logFile, () -> nowMillis);
+		recorder.startUp();
+	}
+
+	@After
+	public void after()
+	{
+		recorder.shutDown();
+		executorBlocked.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception
+	{
+		record(SessionRecorder.KIND_SESSION_START, ACCURATE, 0);
+		record(SessionRecorder.KIND_TRANSITION, DEFENSIVE, 1000);
+		record(SessionRecorder.KIND_TRANSITION, ACCURATE, 2500);
+		recorder.drain();
+		record(SessionRecorder.KIND_TRANSITION, DEFENSIVE, 1000);
+
+		// The warning held until recording stops is measured up to the end
+		nowMillis += 4000;
+		recorder.shutDown();
+
+		List<String> lines = SessionLogReader.summarize(logFile.toPath());
+		assertEquals(2, lines.size());
+		assertSession(lines.get(0), "8.5s long, 4 transitions, warned 2 times for 6.5s");
+		assertEquals("  Defensive on weapon type 9: 2 times, 6.5s", lines.get(1));
+	}
+
+	@Test
+	public void testLogout() throws Exception
+	{
+		record(SessionRecorder.KIND_SESSION_START, ACCURATE, 0);
+		record(SessionRecorder.KIND_TRANSITION, DEFENSIVE, 1000);
+		record(SessionRecorder.KIND_SESSION_END, DEFENSIVE, 2000);
+		record(SessionRecorder.KIND_SESSION_START, DEFENSIVE, 60000);
+		nowMillis += 3000;
+		recorder.shutDown();
+
+		List<String> lines = SessionLogReader.summarize(logFile.toPath());
+		assertEquals(4, lines.size());
+		assertSession(lines.get(0), "3.0s long, 2 transitions, warned 1 times for 2.0s");
+		assertSession(lines.get(2), "3.0s long, 1 transitions, warned 1 times for 3.0s");
+	}
+
+	@Test
+	public void testRingWrapAround() throws Exception
+	{
+		// Three times around the in-memory ring, drained every 100 records
+		int transitions = 3072;
+		record(SessionRecorder.KIND_SESSION_START, ACCURATE, 0);
+		for (int i = 1; i <= transitions; i++)
+		{
+			record(SessionRecorder.KIND_TRANSITION, (i & 1) == 1 ? DEFENSIVE : ACCURATE, 10);
+			if (i % 100 == 0)
+			{
+				recorder.drain();
+			}
+		}
+		recorder.shutDown();
+
+		List<String> lines = SessionLogReader.summarize(logFile.toPath());
+		assertSession(lines.get(0), "30.7s long, 3073 transitions, warned 1536 times for 15.4s");
+	}
+
+	@Test
+	public void testFullRing() throws Exception
+	{
+		// Records past the capacity of the ring are dropped until it is drained
+		record(SessionRecorder.KIND_SESSION_START, ACCURATE, 0);
+		for (int i = 1; i <= 1100; i++)
+		{
+			record(SessionRecorder.KIND_TRANSITION, (i & 1) == 1 ? DEFENSIVE : ACCURATE, 10);
+		}
+
+		// Ends in the state of the last record that fit, warned
+		recorder.shutDown();
+
+		List<String> lines = SessionLogReader.summarize(logFile.toPath());
+		assertSession(lines.get(0), "11.0s long, 1024 transitions, warned 512 times for 5.9s");
+	}
+
+	private void record(int kind, long alertState, long afterMillis)
+	{
+		nowMillis += afterMillis;
+		recorder.record(kind, WEAPON_TYPE, alertState);
+	}
+
+	private static void assertSession(String line, String summary)
+	{
+		assertTrue(line, line.startsWith("Session ") && line.endsWith(", " + summary));
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import lombok.Getter;
+import net.runelite.api.GameState;
+import net.runelite.api.Skill;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.StatChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.config.ConfigItem;
+import net.runelite.client.events.ConfigChanged;
+
+/**
+ * Drives {@link StyleAlertPlugin} and {@link ScreenFlashOverlay} from a trace of varbit, config, stat and tick events
+ * against a {@link FakeClient}, rendering one frame per client tick to record the flash timeline.
+ * <p>
+ * Recorded traces have one event per line:
+ * <pre>
+ * varp &lt;id&gt; &lt;value&gt;
+ * varbit &lt;id&gt; &lt;value&gt;
+ * config &lt;key&gt; &lt;value&gt;
+ * stat &lt;skill&gt; &lt;xp&gt;
+ * tick
+ * </pre>
+ * Blank lines and lines starting with # are ignored.
+ */
+class TickReplaySimulator
+{
+	// The overlay fills the whole canvas, so a tiny one is enough to see whether it flashed
+	private static final int CANVAS_SIZE = 4;
+
+	private final PluginFixture fixture;
+	private final BufferedImage frame = new BufferedImage(CANVAS_SIZE, CANVAS_SIZE, BufferedImage.TYPE_INT_RGB);
+	private final Graphics2D graphics = frame.createGraphics();
+
+	@Getter
+	private long events;
+	@Getter
+	private long ticks;
+	@Getter
+	private long flashedFrames;
+
+	TickReplaySimulator()
+	{
+		this(new PluginFixture());
+	}
+
+	TickReplaySimulator(PluginFixture fixture)
+	{
+		this.fixture = fixture;
+		fixture.client.setCanvasWidth(CANVAS_SIZE);
+		fixture.client.setCanvasHeight(CANVAS_SIZE);
+	}
+
+	StyleAlertPlugin getPlugin()
+	{
+		return fixture.plugin;
+	}
+
+	PluginFixture getFixture()
+	{
+		return fixture;
+	}
+
+	void start() throws Exception
+	{
+		fixture.plugin.startUp();
+		fixture.clientThread.runPending();
+	}
+
+	void stop()
+	{
+		fixture.plugin.shutDown();
+		fixture.clientThread.runPending();
+		graphics.dispose();
+	}
+
+	void varp(int varp, int value)
+	{
+		fixture.client.setVarp(varp, value);
+
+		VarbitChanged event = new VarbitChanged();
+		event.setVarpId(varp);
+		event.setVarbitId(-1);
+		event.setValue(value);
+		dispatch(() -> fixture.plugin.onVarbitChanged(event));
+	}
+
+	void varbit(int varbit, int value)
+	{
+		fixture.client.setVarbit(varbit, value);
+
+		VarbitChanged event = new VarbitChanged();
+		event.setVarpId(-1);
+		event.setVarbitId(varbit);
+		event.setValue(value);
+		dispatch(() -> fixture.plugin.onVarbitChanged(event));
+	}
+
+	void config(String key, Object value)
+	{
+		fixture.config.set(key, value);
+
+		ConfigChanged event = new ConfigChanged();
+		event.setGroup("attackIndicator");
+		event.setKey(key);
+		event.setNewValue(String.valueOf(value));
+		dispatch(() -> fixture.plugin.onConfigChanged(event));
+	}
+
+	void stat(Skill skill, int xp)
+	{
+		fixture.client.setSkillExperience(skill, xp);
+
+		StatChanged event = new StatChanged(skill, xp, 1, 1);
+		dispatch(() -> fixture.plugin.onStatChanged(event));
+	}
+
+	void gameState(GameState gameState)
+	{
+		fixture.client.setGameState(gameState);
+
+		GameStateChanged event = new GameStateChanged();
+		event.setGameState(gameState);
+		dispatch(() ->
+		{
+			fixture.plugin.onGameStateChanged(event);
+			fixture.clientThread.runPending();
+		});
+	}
+
+	// Runs one client tick, including the tasks queued on the client thread, and renders a frame.
+	// Returns whether the frame flashed.
+	boolean tick()
+	{
+		dispatch(() ->
+		{
+			fixture.plugin.onClientTick(null);
+			fixture.clientThread.runPending();
+		});
+		++ticks;
+
+		graphics.setColor(Color.BLACK);
+		graphics.fillRect(0, 0, CANVAS_SIZE, CANVAS_SIZE);
+		fixture.flashOverlay.render(graphics);
+
+		boolean flashed = (frame.getRGB(0, 0) & 0xFFFFFF) != 0;
+		if (flashed)
+		{
+			++flashedFrames;
+		}
+		return flashed;
+	}
+
+	void replay(Reader trace) throws IOException
+	{
+		BufferedReader reader = new BufferedReader(trace);
+		String line;
+		while ((line = reader.readLine()) != null)
+		{
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#"))
+			{
+				continue;
+			}
+
+			String[] parts = line.split("\\s+");
+			switch (parts[0])
+			{
+				case "varp":
+					varp(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+					break;
+				case "varbit":
+					varbit(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+					break;
+				case "config":
+					config(parts[1], configValue(parts[1], parts[2]));
+					break;
+				case "stat":
+					stat(Skill.valueOf(parts[1].toUpperCase()), Integer.parseInt(parts[2]));
+					break;
+				case "tick":
+					tick();
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown trace event: " + line);
+			}
+		}
+	}
+
+	private void dispatch(Runnable event)
+	{
+		event.run();
+		++events;
+	}
+
+	// Config values are typed by the return type of the config method with the given key
+	private static Object configValue(String key, String value)
+	{
+		for (Method method : StyleAlertConfig.class.getMethods())
+		{
+			ConfigItem item = method.getAnnotation(ConfigItem.class);
+			if (item == null || !item.keyName().equals(key))
+			{
+				continue;
+			}
+
+			Class<?> type = method.getReturnType();
+			if (type == boolean.class)
+			{
+				return Boolean.parseBoolean(value);
+			}
+			if (type == int.class)
+			{
+				return Integer.parseInt(value);
+			}
+			if (type.isEnum())
+			{
+				for (Object constant : type.getEnumConstants())
+				{
+					if (((Enum<?>) constant).name().equals(value))
+					{
+						return constant;
+					}
+				}
+			}
+			return value;
+		}
+		throw new IllegalArgumentException("Unknown config key: " + key);
+	}
+}
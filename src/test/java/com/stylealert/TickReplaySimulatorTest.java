@@ -0,0 +1,462 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.awt.Color;
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+import net.runelite.api.GameState;
+import net.runelite.api.Skill;
+import net.runelite.api.VarPlayer;
+import net.runelite.api.Varbits;
+import net.runelite.api.gameval.VarPlayerID;
+import net.runelite.api.gameval.VarbitID;
+import net.runelite.client.ui.overlay.OverlayManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TickReplaySimulatorTest
+{
+	private static final int SEQUENCES = 5000;
+	// Weapon types with synthetic style enums, plus the Blue moon spear and Partisan fallbacks
+	private static final int[] WEAPON_TYPES = {0, 1, 3, 9, 18, 20, 22, 30};
+	private static final String[] WARN_KEYS = {"warnForAttack", "warnForStrength", "warnForDefensive", "warnForRanged", "warnForMagic"};
+	private static final Skill[] WARN_SKILLS = {Skill.ATTACK, Skill.STRENGTH, Skill.DEFENCE, Skill.RANGED, Skill.MAGIC};
+
+	private TickReplaySimulator simulator;
+
+	@Before
+	public void before() throws Exception
+	{
+		simulator = new TickReplaySimulator();
+		simulator.start();
+	}
+
+	@After
+	public void after()
+	{
+		simulator.stop();
+	}
+
+	@Test
+	public void testRecordedTrace() throws Exception
+	{
+		simulator.replay(new StringReader(
+			"config warnForDefensive true\n" +
+			"# Slash sword on Block\n" +
+			"varbit " + Varbits.EQUIPPED_WEAPON_TYPE + " 9\n" +
+			"varp " + VarPlayer.ATTACK_STYLE + " 3\n" +
+			"tick\n"));
+		assertTrue(simulator.getPlugin().isWarnedSkillSelected());
+		assertEquals(AttackStyle.DEFENSIVE, simulator.getPlugin().getAttackStyle());
+		assertEquals(1, simulator.getFlashedFrames());
+
+		simulator.replay(new StringReader(
+			"# Switch to a whip on Flick\n" +
+			"varbit " + Varbits.EQUIPPED_WEAPON_TYPE + " 20\n" +
+			"varp " + VarPlayer.ATTACK_STYLE + " 0\n" +
+			"tick\n"));
+		assertFalse(simulator.getPlugin().isWarnedSkillSelected());
+		assertEquals(AttackStyle.ACCURATE, simulator.getPlugin().getAttackStyle());
+		assertFalse(simulator.tick());
+	}
+
+	@Test
+	public void testAlertRules()
+	{
+		simulator.config("warnForAttack", true);
+		simulator.config("alertRules", "allow Controlled on 20\nwarn Defence on 18 # staff only\nwarn Nonsense");
+
+		assertWarned(false, 20, 1);
+		assertWarned(true, 9, 2);
+		assertWarned(true, 18, 3);
+		assertWarned(false, 0, 3);
+		assertWarned(true, 0, 0);
+
+		simulator.config("alertRules", "");
+		assertWarned(true, 20, 1);
+	}
+
+	@Test
+	public void testRemoveWarnedStyles()
+	{
+		simulator.config("warnForAttack", true);
+		assertWarned(true, 9, 0);
+		assertEquals(0, simulator.getPlugin().getHiddenCombatOptions());
+
+		// Accurate and Controlled on a slash sword
+		simulator.config("removeWarnedStyles", true);
+		simulator.tick();
+		assertEquals(0b101, simulator.getPlugin().getHiddenCombatOptions());
+
+		// Spells and defensive spells on a staff are only hidden for magic
+		simulator.config("warnForMagic", true);
+		assertWarned(true, 18, 4);
+		assertEquals(0b110001, simulator.getPlugin().getHiddenCombatOptions());
+
+		simulator.config("removeWarnedStyles", false);
+		simulator.tick();
+		assertEquals(0, simulator.getPlugin().getHiddenCombatOptions());
+	}
+
+	@Test
+	public void testFlashOverlayRegistration()
+	{
+		OverlayManager overlayManager = simulator.getFixture().overlayManager;
+		ScreenFlashOverlay flashOverlay = simulator.getFixture().flashOverlay;
+		simulator.config("warnForAttack", true);
+		simulator.config("specialAttackAlert", true);
+
+		// Registered while a warning is active, once however long it lasts
+		assertWarned(true, 9, 0);
+		assertWarned(true, 9, 0);
+		verify(overlayManager).add(flashOverlay);
+		verify(overlayManager, never()).remove(flashOverlay);
+
+		assertWarned(false, 9, 3);
+		verify(overlayManager).remove(flashOverlay);
+
+		// And while an alert flash runs, until it expires
+		simulator.getPlugin().setAlertFlashMillis(1);
+		simulator.varp(VarPlayer.SPECIAL_ATTACK_ENABLED, 1);
+		verify(overlayManager, times(2)).add(flashOverlay);
+		verify(overlayManager).remove(flashOverlay);
+
+		// At most a millisecond
+		while (AlertState.nowMillis() < simulator.getPlugin().getAlertFlashEndMillis())
+		{
+			Thread.onSpinWait();
+		}
+		assertFalse(simulator.tick());
+		verify(overlayManager, times(2)).remove(flashOverlay);
+	}
+
+	@Test
+	public void testPulseAnimation()
+	{
+		simulator.config("flashAnimation", StyleAlertConfig.FlashAnimation.PULSE);
+		simulator.config("flashStyle", StyleAlertConfig.FlashStyle.BORDER);
+		simulator.config("warnForAttack", true);
+		simulator.varbit(Varbits.EQUIPPED_WEAPON_TYPE, 0);
+		simulator.varp(VarPlayer.ATTACK_STYLE, 0);
+
+		// The pulse starts at full strength
+		assertTrue(simulator.tick());
+		assertNotNull(simulator.getPlugin().getSettings().getPulseTable());
+	}
+
+	@Test
+	public void testFlashDutyCycle()
+	{
+		simulator.config("flashInterval", StyleAlertConfig.FlashInterval.CUSTOM);
+		simulator.config("customFlashPeriod", 400);
+		simulator.config("flashDutyCycle", 25);
+		simulator.tick();
+
+		StyleAlertSettings settings = simulator.getPlugin().getSettings();
+		assertEquals(400, settings.getFlashPeriodMillis());
+		assertEquals(100, settings.getFlashOnMillis());
+
+		// Always leaving part of the period off
+		simulator.config("flashDutyCycle", 100);
+		simulator.tick();
+		assertEquals(399, simulator.getPlugin().getSettings().getFlashOnMillis());
+	}
+
+	@Test
+	public void testXpLeakAlert() throws Exception
+	{
+		simulator.replay(new StringReader(
+			"config warnForDefensive true\n" +
+			"config xpLeakAlert true\n" +
+			"# The first stat change only records the XP\n" +
+			"stat defence 1000\n" +
+			"stat attack 1000\n" +
+			"stat attack 1100\n" +
+			"tick\n"));
+		assertFalse(simulator.getPlugin().isWarnedSkillSelected());
+		assertEquals(0, simulator.getFlashedFrames());
+
+		simulator.stat(Skill.DEFENCE, 1040);
+		assertTrue(simulator.tick());
+		assertFalse(simulator.getPlugin().isWarnedSkillSelected());
+
+		// Further hits while the flash runs only keep it going
+		simulator.stat(Skill.DEFENCE, 1080);
+		verify(simulator.getFixture().notifier).notify("Gained Defence XP while it is warned");
+	}
+
+	@Test
+	public void testXpLeakAllowedByRules() throws Exception
+	{
+		simulator.config("alertRules", "allow Controlled on 20");
+		simulator.replay(new StringReader(
+			"config warnForDefensive true\n" +
+			"config xpLeakAlert true\n" +
+			"# Lash on a whip, allowed by the rules\n" +
+			"varbit " + Varbits.EQUIPPED_WEAPON_TYPE + " 20\n" +
+			"varp " + VarPlayer.ATTACK_STYLE + " 1\n" +
+			"tick\n" +
+			"stat defence 1000\n" +
+			"stat defence 1040\n" +
+			"tick\n"));
+		assertFalse(simulator.getPlugin().isWarnedSkillSelected());
+		assertEquals(0, simulator.getPlugin().getAlertFlashEndMillis());
+		assertEquals(0, simulator.getFlashedFrames());
+
+		// Defence XP on Flick is still a leak
+		simulator.varp(VarPlayer.ATTACK_STYLE, 0);
+		simulator.tick();
+		simulator.stat(Skill.DEFENCE, 1080);
+		assertTrue(simulator.tick());
+		assertTrue(simulator.getPlugin().getAlertFlashEndMillis() != 0);
+	}
+
+	@Test
+	public void testVarAlerts() throws Exception
+	{
+		simulator.replay(new StringReader(
+			"config specialAttackAlert true\n" +
+			"# Disabled alerts and vars nobody watches are ignored\n" +
+			"varbit " + VarbitID.AUTOCAST_SPELL + " 3\n" +
+			"varp " + VarPlayerID.OPTION_NODEF + " 1\n" +
+			"varbit 10000 1\n" +
+			"varp 300 1000\n" +
+			"varp " + VarPlayer.SPECIAL_ATTACK_ENABLED + " 0\n" +
+			"tick\n"));
+		assertEquals(0, simulator.getPlugin().getAlertFlashEndMillis());
+		assertEquals(0, simulator.getFlashedFrames());
+
+		simulator.varp(VarPlayer.SPECIAL_ATTACK_ENABLED, 1);
+		assertTrue(simulator.tick());
+		assertFalse(simulator.getPlugin().isWarnedSkillSelected());
+		assertTrue(simulator.getPlugin().getAlertFlashEndMillis() != 0);
+	}
+
+	@Test
+	public void testWeaponStyleCache() throws Exception
+	{
+		// Starting without a cache file resolves every weapon type and writes them in the background
+		PluginFixture fixture = simulator.getFixture();
+		fixture.executor.submit(() -> null).get();
+
+		WeaponStyleCache cache = new WeaponStyleCache(fixture.executor, fixture.weaponStylesFile);
+		AttackStyle[][] styles = cache.load(1);
+		assertNotNull(styles);
+		for (int weaponType : WEAPON_TYPES)
+		{
+			assertArrayEquals(expectedStyles(weaponType), styles[weaponType]);
+		}
+		assertNull(cache.load(2));
+	}
+
+	@Test
+	public void testWeaponStylesResolvedOnceLoaded() throws Exception
+	{
+		// The client is still loading its cache, so nothing is resolved yet
+		TickReplaySimulator loading = new TickReplaySimulator();
+		PluginFixture fixture = loading.getFixture();
+		fixture.client.setGameState(GameState.STARTING);
+		loading.start();
+		try
+		{
+			fixture.executor.submit(() -> null).get();
+			assertFalse(fixture.weaponStylesFile.exists());
+
+			loading.gameState(GameState.LOGIN_SCREEN);
+			fixture.executor.submit(() -> null).get();
+			assertTrue(fixture.weaponStylesFile.exists());
+		}
+		finally
+		{
+			loading.stop();
+		}
+	}
+
+	@Test
+	public void testProfiles()
+	{
+		simulator.config("profiles", "pure: warnForDefensive=true, flashInterval=rapid\n" +
+			"main: warnForAttack=true, noSuchKey=1");
+		assertWarned(false, 9, 3);
+
+		simulator.getPlugin().nextProfile();
+		assertWarned(true, 9, 3);
+		assertEquals(500, simulator.getPlugin().getSettings().getFlashPeriodMillis());
+
+		simulator.getPlugin().nextProfile();
+		assertWarned(false, 9, 3);
+		assertWarned(true, 9, 0);
+
+		// Back to the config itself
+		simulator.getPlugin().nextProfile();
+		assertWarned(false, 9, 0);
+		assertEquals(1000, simulator.getPlugin().getSettings().getFlashPeriodMillis());
+	}
+
+	@Test
+	public void testConfigChangesBatched()
+	{
+		StyleAlertSettings settings = simulator.getPlugin().getSettings();
+		simulator.config("warnForAttack", true);
+		simulator.config("flashInterval", StyleAlertConfig.FlashInterval.RAPID);
+		simulator.config("flashColor", Color.BLUE);
+		assertSame(settings, simulator.getPlugin().getSettings());
+
+		// Applied once on the next tick
+		simulator.tick();
+		settings = simulator.getPlugin().getSettings();
+		assertEquals(500, settings.getFlashPeriodMillis());
+		assertEquals(Color.BLUE.getRGB() & 0xFFFFFF, settings.getFlashColor().getRGB() & 0xFFFFFF);
+
+		simulator.tick();
+		assertSame(settings, simulator.getPlugin().getSettings());
+	}
+
+	@Test
+	public void testGeneratedGearSwitches()
+	{
+		Random random = new Random(43);
+		Set<Skill> warnedSkills = EnumSet.noneOf(Skill.class);
+		boolean warned = false;
+
+		for (int sequence = 0; sequence < SEQUENCES; sequence++)
+		{
+			// Every so often change the warned skills, as if the user toggled them mid-fight
+			if (sequence % 100 == 0)
+			{
+				for (int i = 0; i < WARN_KEYS.length; i++)
+				{
+					boolean warn = random.nextBoolean();
+					simulator.config(WARN_KEYS[i], warn);
+					if (warn)
+					{
+						warnedSkills.add(WARN_SKILLS[i]);
+					}
+					else
+					{
+						warnedSkills.remove(WARN_SKILLS[i]);
+					}
+				}
+			}
+
+			int weaponType = WEAPON_TYPES[random.nextInt(WEAPON_TYPES.length)];
+			AttackStyle[] styles = expectedStyles(weaponType);
+			int attackStyleIndex = random.nextInt(Math.min(styles.length, 5));
+			int castingMode = attackStyleIndex == 4 && styles.length > 5 ? random.nextInt(2) : 0;
+			int styleIndex = attackStyleIndex == 4 ? attackStyleIndex + castingMode : attackStyleIndex;
+			AttackStyle expectedStyle = styles[styleIndex] != null ? styles[styleIndex] : AttackStyle.OTHER;
+
+			// A switch can change the varbits in any order within the tick
+			int first = random.nextInt(3);
+			for (int i = 0; i < 3; i++)
+			{
+				switch ((first + i) % 3)
+				{
+					case 0:
+						simulator.varbit(Varbits.EQUIPPED_WEAPON_TYPE, weaponType);
+						break;
+					case 1:
+						simulator.varp(VarPlayer.ATTACK_STYLE, attackStyleIndex);
+						break;
+					case 2:
+						simulator.varbit(Varbits.DEFENSIVE_CASTING_MODE, castingMode);
+						break;
+				}
+			}
+
+			boolean wasWarned = warned;
+			warned = false;
+			for (Skill skill : expectedStyle.getSkills())
+			{
+				warned |= warnedSkills.contains(skill);
+			}
+
+			boolean flashed = simulator.tick();
+			assertEquals(expectedStyle, simulator.getPlugin().getAttackStyle());
+			assertEquals(warned, simulator.getPlugin().isWarnedSkillSelected());
+			if (!warned)
+			{
+				assertFalse("flashed without a warned style", flashed);
+			}
+			else if (!wasWarned)
+			{
+				assertTrue("did not flash on the first frame of a warning", flashed);
+			}
+		}
+
+		// Three var changes and a tick per switch, and the warned skill toggles, the cost of each is measured by
+		// GearSwitchReplayBenchmark
+		assertEquals(SEQUENCES * 4 + SEQUENCES / 100 * WARN_KEYS.length, simulator.getEvents());
+		assertEquals(SEQUENCES, simulator.getTicks());
+	}
+
+	private void assertWarned(boolean warned, int weaponType, int attackStyleIndex)
+	{
+		simulator.varbit(Varbits.EQUIPPED_WEAPON_TYPE, weaponType);
+		simulator.varp(VarPlayer.ATTACK_STYLE, attackStyleIndex);
+		simulator.tick();
+		assertEquals(warned, simulator.getPlugin().isWarnedSkillSelected());
+	}
+
+	// The combat options of a weapon type as resolved by script4525
+	private static AttackStyle[] expectedStyles(int weaponType)
+	{
+		switch (weaponType)
+		{
+			case 22:
+				return new AttackStyle[]{AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, null, AttackStyle.DEFENSIVE, AttackStyle.CASTING, AttackStyle.DEFENSIVE_CASTING};
+			case 30:
+				return new AttackStyle[]{AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, AttackStyle.AGGRESSIVE, AttackStyle.DEFENSIVE};
+		}
+
+		AttackStyle[] styles = FakeClient.WEAPON_STYLES.get(weaponType).clone();
+		for (int i = 0; i < styles.length; i++)
+		{
+			if (styles[i] == AttackStyle.OTHER)
+			{
+				styles[i] = null;
+			}
+			else if (i == 5 && styles[i] == AttackStyle.DEFENSIVE)
+			{
+				styles[i] = AttackStyle.DEFENSIVE_CASTING;
+			}
+		}
+		return styles;
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.runelite.api.events.VarbitChanged;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class VarWatchRegistryTest
+{
+	private final VarWatchRegistry registry = new VarWatchRegistry();
+	private final List<String> changes = new ArrayList<>();
+
+	@Test
+	public void testDispatch()
+	{
+		registry.watchVarbit(100, value -> changes.add("varbit " + value));
+		registry.watchVarp(100, value -> changes.add("varp " + value));
+		registry.watchVarp(5, value -> changes.add("varp 5 " + value));
+
+		dispatch(-1, 100, 1);
+		dispatch(100, -1, 2);
+		// A varbit change carries its varp, which is not dispatched with it
+		dispatch(5, 7, 3);
+		// Vars nobody watches, inside and past the watched ids
+		dispatch(6, -1, 4);
+		dispatch(-1, 1000, 5);
+		dispatch(1000, -1, 6);
+		dispatch(-1, -1, 7);
+
+		assertEquals(Arrays.asList("varbit 1", "varp 2"), changes);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testWatchedTwice()
+	{
+		registry.watchVarbit(100, value -> changes.add("first"));
+		registry.watchVarbit(100, value -> changes.add("second"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidId()
+	{
+		registry.watchVarp(-1, value -> changes.add("varp"));
+	}
+
+	private void dispatch(int varp, int varbit, int value)
+	{
+		VarbitChanged event = new VarbitChanged();
+		event.setVarpId(varp);
+		event.setVarbitId(varbit);
+		event.setValue(value);
+		registry.dispatch(event);
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WeaponStyleCacheTest
+{
+	private static final int MAGIC = 0x53415753;
+	private static final int VERSION = 2;
+	private static final int REVISION = 230;
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+	private File file;
+	private WeaponStyleCache cache;
+
+	@Before
+	public void before() throws Exception
+	{
+		File directory = Files.createTempDirectory("style-alert").toFile();
+		directory.deleteOnExit();
+		file = new File(directory, "weapon-styles.bin");
+		file.deleteOnExit();
+		cache = new WeaponStyleCache(executor, file);
+	}
+
+	@After
+	public void after()
+	{
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception
+	{
+		AttackStyle[][] styles = {
+			{AttackStyle.ACCURATE, AttackStyle.AGGRESSIVE, null, AttackStyle.DEFENSIVE},
+			{},
+			{AttackStyle.CASTING, AttackStyle.DEFENSIVE_CASTING},
+		};
+		cache.save(REVISION, styles);
+		executor.submit(() -> null).get();
+
+		AttackStyle[][] loaded = cache.load(REVISION);
+		assertEquals(styles.length, loaded.length);
+		for (int i = 0; i < styles.length; i++)
+		{
+			assertArrayEquals(styles[i], loaded[i]);
+		}
+		assertNull(cache.load(REVISION + 1));
+	}
+
+	@Test
+	public void testStylesByName() throws Exception
+	{
+		// Written when Defensive came first, still decoded by name
+		write(header(2, "DEFENSIVE", "ACCURATE").putInt(1).put((byte) 3).put((byte) 2).put((byte) 0).put((byte) 1));
+		assertArrayEquals(new AttackStyle[]{AttackStyle.ACCURATE, null, AttackStyle.DEFENSIVE}, cache.load(REVISION)[0]);
+
+		// A style that no longer exists resolves the styles again
+		write(header(1, "SPINNING").putInt(1).put((byte) 1).put((byte) 1));
+		assertNull(cache.load(REVISION));
+	}
+
+	@Test
+	public void testCorruptCounts() throws Exception
+	{
+		// More weapon types than bytes left in the file
+		write(header(1, "ACCURATE").putInt(Integer.MAX_VALUE).put((byte) 1).put((byte) 1));
+		assertNull(cache.load(REVISION));
+
+		write(header(1, "ACCURATE").putInt(-1));
+		assertNull(cache.load(REVISION));
+
+		// More combat options than bytes left
+		write(header(1, "ACCURATE").putInt(1).put((byte) 4).put((byte) 1));
+		assertNull(cache.load(REVISION));
+	}
+
+	private static ByteBuffer header(int styleCount, String... names)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(REVISION).put((byte) styleCount);
+		for (String name : names)
+		{
+			buffer.put((byte) name.length()).put(name.getBytes(StandardCharsets.US_ASCII));
+		}
+		return buffer;
+	}
+
+	private void write(ByteBuffer buffer) throws Exception
+	{
+		buffer.flip();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		Files.write(file.toPath(), bytes);
+	}
+}
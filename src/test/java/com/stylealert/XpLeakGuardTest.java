@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024, Smoke (Smoked today) <https://github.com/Varietyz>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.stylealert;
+
+import net.runelite.api.Skill;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class XpLeakGuardTest
+{
+	private static final int DEFENCE = AttackStyle.skillMask(Skill.DEFENCE);
+	private static final int ATTACK = AttackStyle.skillMask(Skill.ATTACK);
+
+	@Test
+	public void testXpChanged()
+	{
+		XpLeakGuard guard = new XpLeakGuard();
+
+		// The first change of a skill only records its XP
+		assertFalse(guard.xpChanged(Skill.DEFENCE, 1000, DEFENCE));
+		assertTrue(guard.xpChanged(Skill.DEFENCE, 1040, DEFENCE));
+		assertFalse(guard.xpChanged(Skill.DEFENCE, 1040, DEFENCE));
+		assertFalse(guard.xpChanged(Skill.DEFENCE, 1080, ATTACK));
+
+		guard.reset();
+		assertFalse(guard.xpChanged(Skill.DEFENCE, 1120, DEFENCE));
+	}
+
+	@Test
+	public void testPrime()
+	{
+		XpLeakGuard guard = new XpLeakGuard();
+		int[] experiences = new int[Skill.values().length];
+		experiences[Skill.DEFENCE.ordinal()] = 1000;
+		guard.prime(experiences);
+
+		assertTrue(guard.xpChanged(Skill.DEFENCE, 1040, DEFENCE));
+		// Not sent yet when primed
+		assertFalse(guard.xpChanged(Skill.ATTACK, 500, ATTACK));
+	}
+
+	@Test
+	public void testLeakSkillMask()
+	{
+		int warned = DEFENCE;
+		assertEquals(warned, XpLeakGuard.leakSkillMask(warned, null, false));
+		assertEquals(warned, XpLeakGuard.leakSkillMask(warned, AttackStyle.ACCURATE, false));
+		// Allowed by the rules, so the Defence XP of Controlled is expected
+		assertEquals(0, XpLeakGuard.leakSkillMask(warned, AttackStyle.CONTROLLED, false));
+		// Warned by the rules, although Attack is not a warned skill
+		assertEquals(warned | ATTACK, XpLeakGuard.leakSkillMask(warned, AttackStyle.ACCURATE, true));
+	}
+}